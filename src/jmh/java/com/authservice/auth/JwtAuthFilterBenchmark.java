@@ -0,0 +1,79 @@
+package com.authservice.auth;
+
+import com.authservice.services.AuditLog;
+import com.authservice.services.AuthMetrics;
+import com.authservice.services.CustomUserDetails;
+import com.authservice.services.JwtService;
+import com.authservice.services.JwtSigningKeys;
+import com.authservice.services.TokenRevocationList;
+import com.authservice.services.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtAuthFilter in stateless mode over a hot set of bearer tokens, with and without the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtAuthFilterBenchmark {
+
+    private static final String SECRET = "Y2hhbmdlLW1lLWxvY2FsLWRldi1zZWNyZXQtYXQtbGVhc3QtMzItYnl0ZXMh";
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    @Param({"16", "1024"})
+    public int hotTokens;
+
+    private JwtAuthFilter filter;
+    private String[] headers;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        AuthMetrics authMetrics = new AuthMetrics(new SimpleMeterRegistry());
+        JwtService jwtService = new JwtService(JwtSigningKeys.hmac(SECRET), authMetrics);
+        filter = new JwtAuthFilter();
+        ReflectionTestUtils.setField(filter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(filter, "authMetrics", authMetrics);
+        ReflectionTestUtils.setField(filter, "tokenRevocationList", new TokenRevocationList(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(filter, "verifiedTokenCache",
+                new VerifiedTokenCache(jwtService, cacheEnabled, 100_000, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(filter, "authenticationMode", AuthenticationMode.STATELESS);
+        ReflectionTestUtils.setField(filter, "auditLog", new AuditLog(events -> { }, new SimpleMeterRegistry(), 1024, 1024, 1000));
+
+        headers = new String[hotTokens];
+        for (int i = 0; i < hotTokens; i++) {
+            CustomUserDetails user = new CustomUserDetails("id-" + i, "user-" + i, null,
+                    List.of(new SimpleGrantedAuthority("USER")));
+            headers[i] = "Bearer " + jwtService.generateToken(user);
+        }
+    }
+
+    @Benchmark
+    public Object filterRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resource");
+        request.addHeader("Authorization", headers[next++ & (hotTokens - 1)]);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+}
@@ -0,0 +1,63 @@
+package com.authservice.services;
+
+import com.authservice.entities.UserInfo;
+import com.authservice.entities.UserRole;
+import com.authservice.model.UserCredentialRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a loaded UserInfo, or the rows of the credential projection, into the principal,
+ * by number of roles. Run with the gc profiler to compare allocations per lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CustomUserDetailsBenchmark {
+
+    @Param({"1", "8", "64"})
+    public int roles;
+
+    private UserInfo userInfo;
+    private List<UserCredentialRow> rows;
+
+    @Setup
+    public void setUp() {
+        Set<UserRole> userRoles = new HashSet<>();
+        for (int i = 0; i < roles; i++) {
+            userRoles.add(new UserRole(i, "role_" + i));
+        }
+        userInfo = UserInfo.builder()
+                .userId("0b9c3f55-2d1e-4e8f-9a57-6a3f5b1c2d3e")
+                .username("benchmark.user")
+                .password("hash")
+                .roles(userRoles)
+                .build();
+        rows = new ArrayList<>();
+        for (UserRole role : userRoles) {
+            rows.add(new UserCredentialRow(userInfo.getUserId(), userInfo.getUsername(), "hash", role.getName()));
+        }
+    }
+
+    @Benchmark
+    public CustomUserDetails fromUserInfo() {
+        return new CustomUserDetails(userInfo);
+    }
+
+    @Benchmark
+    public CustomUserDetails fromCredentialRows() {
+        return CustomUserDetails.fromRows(rows);
+    }
+}
@@ -0,0 +1,66 @@
+package com.authservice.services;
+
+import com.authservice.entities.UserInfo;
+import com.authservice.entities.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issuing one access token: the HS256 encoder JwtService now uses against the jjwt builder path it replaced.
+ * Both produce the same bytes. Compare ns/op here and gc.alloc.rate.norm (bytes per token) from the gc profiler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class Hs256TokenEncoderBenchmark {
+
+    private JwtService jwtService;
+    private CustomUserDetails userDetails;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(JwtSigningKeys.hmac(JwtServiceBenchmark.SECRET), new AuthMetrics(new SimpleMeterRegistry()));
+        Set<UserRole> roles = new HashSet<>();
+        roles.add(new UserRole(1L, "user"));
+        roles.add(new UserRole(2L, "admin"));
+        userDetails = new CustomUserDetails(UserInfo.builder()
+                .userId("0b9c3f55-2d1e-4e8f-9a57-6a3f5b1c2d3e")
+                .username("benchmark.user")
+                .password("hash")
+                .roles(roles)
+                .build());
+    }
+
+    @Benchmark
+    public String hs256Encoder() {
+        return jwtService.generateToken(userDetails);
+    }
+
+    // The claims map generateToken(UserDetails) used to build for every token, signed through jjwt and Jackson
+    @Benchmark
+    public String jjwtBuilder() {
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("uid", userDetails.getUserId());
+        List<String> roles = new ArrayList<>();
+        for (GrantedAuthority authority : userDetails.getAuthorities()) {
+            roles.add(authority.getAuthority());
+        }
+        claims.put("roles", roles);
+        return jwtService.generateToken(claims, userDetails);
+    }
+}
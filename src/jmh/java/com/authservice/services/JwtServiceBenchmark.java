@@ -0,0 +1,91 @@
+package com.authservice.services;
+
+import com.authservice.entities.UserInfo;
+import com.authservice.entities.UserRole;
+import com.authservice.model.VerifiedClaims;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of issuing and verifying access tokens.
+ * legacyFilterPath reproduces the old per-request work (three parses, parser and key rebuilt each time);
+ * verifyOnce is what JwtAuthFilter does now on a cache miss.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtServiceBenchmark {
+
+    static final String SECRET = "Y2hhbmdlLW1lLWxvY2FsLWRldi1zZWNyZXQtYXQtbGVhc3QtMzItYnl0ZXMh";
+
+    private JwtSigningKeys signingKeys;
+    private JwtService jwtService;
+    private CustomUserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        signingKeys = JwtSigningKeys.hmac(SECRET);
+        jwtService = new JwtService(signingKeys, new AuthMetrics(new SimpleMeterRegistry()));
+        Set<UserRole> roles = new HashSet<>();
+        roles.add(new UserRole(1L, "user"));
+        roles.add(new UserRole(2L, "admin"));
+        userDetails = new CustomUserDetails(UserInfo.builder()
+                .userId("0b9c3f55-2d1e-4e8f-9a57-6a3f5b1c2d3e")
+                .username("benchmark.user")
+                .password("hash")
+                .roles(roles)
+                .build());
+        token = jwtService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, userDetails);
+    }
+
+    @Benchmark
+    public boolean verifyOnce() {
+        VerifiedClaims claims = jwtService.verifyToken(token);
+        return jwtService.isTokenValid(claims, userDetails);
+    }
+
+    @Benchmark
+    public boolean legacyFilterPath() {
+        String username = legacyClaims().getSubject();
+        String subject = legacyClaims().getSubject();
+        Date expiration = legacyClaims().getExpiration();
+        return username.equals(subject) && subject.equals(userDetails.getUsername()) && expiration.after(new Date());
+    }
+
+    private Claims legacyClaims() {
+        return Jwts.parserBuilder()
+                .setSigningKey(JwtSigningKeys.hmac(SECRET).getSigningKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,61 @@
+package com.authservice.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Command line options of the load test, as --name=value pairs.
+ */
+final class LoadTestOptions {
+
+    enum Endpoint { LOGIN, SIGNUP, REFRESH, ME }
+
+    int users = 1000;
+    int rate = 200;
+    int durationSeconds = 30;
+    int warmupSeconds = 5;
+    boolean virtualThreads = false;
+    String refreshTokenStore = "memory";
+    String authenticationMode = "database";
+    int importUsers = 0;
+    Map<Endpoint, Integer> mix = new EnumMap<>(Map.of(
+            Endpoint.LOGIN, 10,
+            Endpoint.SIGNUP, 2,
+            Endpoint.REFRESH, 18,
+            Endpoint.ME, 70));
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            String value = pair.length > 1 ? pair[1] : "true";
+            switch (pair[0]) {
+                case "users" -> options.users = Integer.parseInt(value);
+                case "rate" -> options.rate = Integer.parseInt(value);
+                case "duration" -> options.durationSeconds = Integer.parseInt(value);
+                case "warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                case "virtual" -> options.virtualThreads = Boolean.parseBoolean(value);
+                case "refresh-store" -> options.refreshTokenStore = value;
+                case "auth-mode" -> options.authenticationMode = value;
+                case "mix" -> options.mix = parseMix(value);
+                case "import" -> options.importUsers = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Unknown option " + arg
+                        + " (expected users, rate, duration, warmup, virtual, refresh-store, auth-mode, mix, import)");
+            }
+        }
+        if (options.users < 2) {
+            throw new IllegalArgumentException("--users must be at least 2");
+        }
+        return options;
+    }
+
+    // e.g. login:10,signup:2,refresh:18,me:70
+    private static Map<Endpoint, Integer> parseMix(String value) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String part : value.split(",")) {
+            String[] weight = part.split(":");
+            mix.put(Endpoint.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,264 @@
+package com.authservice.loadtest;
+
+import com.authservice.AuthserviceApplication;
+import com.authservice.loadtest.LoadTestOptions.Endpoint;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.BufferedWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load generator: boots the service on the embedded H2 database ("memory" profile), seeds users,
+ * then sends a weighted mix of /login, /signup, /refreshToken and /me at a fixed rate from virtual threads.
+ * Latency is measured from each request's scheduled start, so a stalled server cannot hide queueing
+ * (coordinated omission). Reports throughput and p50/p95/p99/p99.9 per endpoint.
+ * With --import=N it instead uploads a generated CSV of N users to /users/import and reports the import rate.
+ */
+public final class LoadTestRunner {
+
+    private static final String PASSWORD = "load-test-password";
+    private static final String LOAD_TEST_SECRET = "bG9hZC10ZXN0LW9ubHktc2lnbmluZy1rZXktYXQtbGVhc3QtMzItYnl0ZXMh";
+
+    private final LoadTestOptions options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final AtomicLong signups = new AtomicLong();
+    private final List<Session> sessions = new ArrayList<>();
+    private String baseUrl;
+
+    private record Session(String accessToken, String refreshToken) {
+    }
+
+    private LoadTestRunner(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AuthserviceApplication.class)
+                .profiles(options.virtualThreads ? new String[]{"memory", "virtual"} : new String[]{"memory"})
+                .run("--server.port=0",
+                        "--logging.level.root=WARN",
+                        // every simulated client shares one IP; the harness measures capacity, not throttling
+                        "--auth.login-rate-limit.enabled=false",
+                        // throwaway signing key for the in-process server; never used outside this harness
+                        "--jwt.secret=" + LOAD_TEST_SECRET,
+                        "--auth.refresh-token.store=" + options.refreshTokenStore,
+                        "--jwt.authentication-mode=" + options.authenticationMode);
+        try {
+            LoadTestRunner runner = new LoadTestRunner(options);
+            runner.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/auth/v1";
+            if (options.importUsers > 0) {
+                runner.runImport(context);
+            } else {
+                runner.seedUsers(context);
+                runner.openSessions();
+                runner.run();
+            }
+        } finally {
+            context.close();
+        }
+        System.exit(0);
+    }
+
+    // Inserts users directly with one shared hash; hashing each of them would dominate the setup time
+    private void seedUsers(ConfigurableApplicationContext context) {
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        List<Object[]> rows = new ArrayList<>(options.users);
+        for (int i = 0; i < options.users; i++) {
+            rows.add(new Object[]{UUID.randomUUID().toString(), username(i), hash});
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate("INSERT INTO users (user_id, username, password) VALUES (?, ?, ?)", rows);
+        System.out.printf("Seeded %d users%n", options.users);
+    }
+
+    // The upper half of the users hold sessions for /refreshToken and /me; /login only uses the lower half,
+    // so logins never replace a refresh token the mix is still using
+    private void openSessions() throws Exception {
+        int count = Math.min(options.users / 2, 500);
+        List<Future<Session>> logins = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String username = username(options.users - 1 - i);
+            logins.add(requests.submit(() -> {
+                HttpResponse<String> response = send(login(username));
+                JsonNode body = objectMapper.readTree(response.body());
+                return new Session(body.get("accessToken").asText(), body.get("token").asText());
+            }));
+        }
+        for (Future<Session> login : logins) {
+            sessions.add(login.get());
+        }
+        System.out.printf("Opened %d sessions%n", sessions.size());
+    }
+
+    private void run() throws InterruptedException {
+        int warmupRequests = options.rate * options.warmupSeconds;
+        int totalRequests = warmupRequests + options.rate * options.durationSeconds;
+        Map<Endpoint, LatencyRecorder> recorders = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new LatencyRecorder(totalRequests));
+        }
+        int totalWeight = options.mix.values().stream().mapToInt(Integer::intValue).sum();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate;
+
+        System.out.printf("Running %d req/s for %ds (+%ds warm-up), mix %s%n",
+                options.rate, options.durationSeconds, options.warmupSeconds, options.mix);
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        for (int i = 0; i < totalRequests; i++) {
+            long scheduledAt = start + i * intervalNanos;
+            long wait;
+            while ((wait = scheduledAt - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Endpoint endpoint = pick(totalWeight);
+            boolean measured = i >= warmupRequests;
+            requests.execute(() -> {
+                boolean success;
+                try {
+                    success = send(request(endpoint)).statusCode() / 100 == 2;
+                } catch (Exception e) {
+                    success = false;
+                }
+                if (measured) {
+                    recorders.get(endpoint).record(System.nanoTime() - scheduledAt, success);
+                }
+            });
+        }
+        requests.shutdown();
+        requests.awaitTermination(1, TimeUnit.MINUTES);
+        report(recorders);
+    }
+
+    // Streams a generated file through the bulk import endpoint as an ADMIN user and times the whole upload
+    private void runImport(ConfigurableApplicationContext context) throws Exception {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        String adminId = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO users (user_id, username, password) VALUES (?, ?, ?)",
+                adminId, "load-admin", context.getBean(PasswordEncoder.class).encode(PASSWORD));
+        jdbcTemplate.update("INSERT INTO roles (role_id, name) VALUES (1, 'admin')");
+        jdbcTemplate.update("INSERT INTO user_role_join (user_id, role_id) VALUES (?, 1)", adminId);
+        String accessToken = objectMapper.readTree(send(login("load-admin")).body()).get("accessToken").asText();
+
+        Path csv = Files.createTempFile("users-import", ".csv");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(csv)) {
+                writer.write("username,password\n");
+                for (int i = 0; i < options.importUsers; i++) {
+                    writer.write("import-user-" + i + "," + PASSWORD + "-" + i + "\n");
+                }
+            }
+            System.out.printf("Importing %d users (%d cores)%n", options.importUsers, Runtime.getRuntime().availableProcessors());
+            long start = System.nanoTime();
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/users/import"))
+                            .header("Content-Type", "text/csv")
+                            .header("Authorization", "Bearer " + accessToken)
+                            .timeout(Duration.ofHours(2))
+                            .POST(HttpRequest.BodyPublishers.ofFile(csv))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            double seconds = (System.nanoTime() - start) / 1e9;
+            JsonNode report = objectMapper.readTree(response.body());
+            System.out.printf("%nstatus %d, imported %d, failed %d in %.1f s (%.0f users/s)%n",
+                    response.statusCode(), report.path("imported").asLong(), report.path("failed").asLong(),
+                    seconds, report.path("imported").asLong() / seconds);
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+
+    private Endpoint pick(int totalWeight) {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Endpoint, Integer> entry : options.mix.entrySet()) {
+            ticket -= entry.getValue();
+            if (ticket < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty request mix");
+    }
+
+    private HttpRequest request(Endpoint endpoint) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Session session = sessions.get(random.nextInt(sessions.size()));
+        return switch (endpoint) {
+            case LOGIN -> login(username(random.nextInt(options.users / 2)));
+            case SIGNUP -> post("/signup", Map.of("username", "load-signup-" + signups.incrementAndGet(), "password", PASSWORD));
+            case REFRESH -> post("/refreshToken", Map.of("token", session.refreshToken()));
+            case ME -> HttpRequest.newBuilder(URI.create(baseUrl + "/me"))
+                    .header("Authorization", "Bearer " + session.accessToken())
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+        };
+    }
+
+    private HttpRequest login(String username) {
+        return post("/login", Map.of("username", username, "password", PASSWORD));
+    }
+
+    private HttpRequest post(String path, Map<String, String> body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void report(Map<Endpoint, LatencyRecorder> recorders) {
+        System.out.printf("%n%-10s %9s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms");
+        long total = 0;
+        for (Map.Entry<Endpoint, LatencyRecorder> entry : recorders.entrySet()) {
+            LatencyRecorder recorder = entry.getValue();
+            if (recorder.count() == 0) {
+                continue;
+            }
+            total += recorder.count();
+            double[] p = recorder.percentilesMillis(50, 95, 99, 99.9);
+            System.out.printf("%-10s %9d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey().name().toLowerCase(), recorder.count(), recorder.errors(),
+                    recorder.count() / (double) options.durationSeconds, p[0], p[1], p[2], p[3]);
+        }
+        System.out.printf("%-10s %9d %8s %10.1f%n", "total", total, "", total / (double) options.durationSeconds);
+    }
+
+    private static String username(int index) {
+        return "load-user-" + index;
+    }
+}
@@ -0,0 +1,16 @@
+package com.authservice.auth;
+
+/**
+ * How JwtAuthFilter turns a verified access token into an authenticated principal.
+ */
+public enum AuthenticationMode {
+    /**
+     * Reload the user from the database on every request, so role changes apply immediately.
+     */
+    DATABASE,
+    /**
+     * Build the principal from the user id and role claims inside the token; no database round-trip.
+     * Role changes only take effect once the user's current token expires.
+     */
+    STATELESS
+}
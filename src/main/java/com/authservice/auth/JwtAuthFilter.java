@@ -1,14 +1,27 @@
 package com.authservice.auth;
 
 
+import com.authservice.model.VerifiedClaims;
+import com.authservice.model.AuthAuditEvent;
+import com.authservice.services.AuditLog;
+import com.authservice.services.AuthMetrics;
+import com.authservice.services.CustomUserDetails;
 import com.authservice.services.JwtService;
+import com.authservice.services.TokenRevocationList;
 import com.authservice.services.UserDetailServicesImpl;
+import com.authservice.services.VerifiedTokenCache;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -16,52 +29,99 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 
 /**
  * Filter responsible for processing JWTs in the request header.
  * It executes once per request to validate the token and set the security context.
  */
+@Slf4j
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
     @Autowired
     private UserDetailServicesImpl userDetailsService;
 
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Value("${jwt.authentication-mode:database}")
+    private AuthenticationMode authenticationMode;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
         final String token;
+        final VerifiedClaims claims;
         final String username;
 
         // 1. Check for token presence and format ("Bearer <token>")
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            authMetrics.filterOutcome(AuthMetrics.FilterOutcome.MISSING);
             filterChain.doFilter(request, response);
             return;
         }
 
-        // 2. Extract token and username
+        // 2. Extract token and verify it once; signature and expiry are checked here,
+        // or skipped when this exact token was already verified and has not expired yet
         token = authHeader.substring(7);
         try {
-            username = jwtService.extractUsername(token);
-        } catch (Exception e) {
-            // Token is expired, malformed, or signature is invalid.
-            System.err.println("JWT processing error: " + e.getMessage());
+            claims = verifiedTokenCache.verify(token);
+            username = claims.getSubject();
+        } catch (ExpiredJwtException e) {
+            authMetrics.filterOutcome(AuthMetrics.FilterOutcome.EXPIRED);
+            rejected(request, e.getClaims() == null ? null : e.getClaims().getSubject(), AuthMetrics.FilterOutcome.EXPIRED);
+            filterChain.doFilter(request, response);
+            return;
+        } catch (JwtException | IllegalArgumentException e) {
+            // Token is malformed or signature is invalid; counted and audited rather than logged per request
+            log.debug("Rejected JWT: {}", e.getMessage());
+            authMetrics.filterOutcome(AuthMetrics.FilterOutcome.INVALID);
+            rejected(request, null, AuthMetrics.FilterOutcome.INVALID);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+
+        if (username == null) {
+            authMetrics.filterOutcome(AuthMetrics.FilterOutcome.INVALID);
+            rejected(request, null, AuthMetrics.FilterOutcome.INVALID);
             filterChain.doFilter(request, response);
             return;
         }
 
+        // In-memory lookup only; revocations from other nodes arrive through TokenRevocationService polling
+        if (tokenRevocationList.isRevoked(claims)) {
+            authMetrics.filterOutcome(AuthMetrics.FilterOutcome.REVOKED);
+            rejected(request, username, AuthMetrics.FilterOutcome.REVOKED);
+            filterChain.doFilter(request, response);
+            return;
+        }
 
         // 3. Validate token and authentication status
-        // Only proceed if username is found and the user is not already authenticated
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        // Only proceed if the user is not already authenticated
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = authenticationMode == AuthenticationMode.STATELESS
+                    ? userDetailsFromClaims(claims)
+                    : this.userDetailsService.loadUserByUsername(username);
 
-            if (jwtService.isTokenValid(token, userDetails)) {
+            if (jwtService.isTokenValid(claims, userDetails)) {
                 // 4. Create authentication token
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
@@ -74,9 +134,27 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
                 // 5. Update Security Context, effectively authenticating the user
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+                authMetrics.filterOutcome(AuthMetrics.FilterOutcome.OK);
+            } else {
+                authMetrics.filterOutcome(AuthMetrics.FilterOutcome.INVALID);
+                rejected(request, username, AuthMetrics.FilterOutcome.INVALID);
             }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    // Never blocks: the event goes to AuditLog's buffer, or is dropped and counted when it is full
+    private void rejected(HttpServletRequest request, String username, AuthMetrics.FilterOutcome outcome) {
+        auditLog.record(AuthAuditEvent.Type.TOKEN_REJECTED, username, request.getRemoteAddr(), outcome.name().toLowerCase(Locale.ROOT));
+    }
+
+    // Principal built only from verified claims; credentials are never part of an access token
+    private UserDetails userDetailsFromClaims(VerifiedClaims claims) {
+        List<GrantedAuthority> authorities = new ArrayList<>(claims.getRoles().size());
+        for (String role : claims.getRoles()) {
+            authorities.add(new SimpleGrantedAuthority(role));
+        }
+        return new CustomUserDetails(claims.getUserId(), claims.getSubject(), null, authorities);
+    }
 }
\ No newline at end of file
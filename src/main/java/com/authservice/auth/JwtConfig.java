@@ -0,0 +1,24 @@
+package com.authservice.auth;
+
+import com.authservice.services.JwtSigningKeys;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class JwtConfig {
+    @Bean
+    public JwtSigningKeys jwtSigningKeys(@Value("${jwt.signing.algorithm:HS256}") SignatureAlgorithm algorithm,
+                                         @Value("${jwt.secret}") String secret,
+                                         @Value("${jwt.signing.key-dir:}") String keyDirectory,
+                                         @Value("${jwt.signing.active-key-id:}") String activeKeyId,
+                                         @Value("${jwt.signing.accept-hs256:false}") boolean acceptHs256) {
+        if (algorithm == SignatureAlgorithm.HS256) {
+            return JwtSigningKeys.hmac(secret);
+        }
+        return JwtSigningKeys.asymmetric(algorithm, Path.of(keyDirectory), activeKeyId, acceptHs256 ? secret : null);
+    }
+}
@@ -0,0 +1,128 @@
+package com.authservice.auth;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles POST /auth/v1/login per client IP and per username before any password is checked,
+ * so credential stuffing is turned away without spending BCrypt time.
+ * The IP bucket is checked first and needs no body parsing; the body is then read once (size-capped)
+ * for the username and handed on to the controller unchanged.
+ * The client IP is request.getRemoteAddr(); behind a proxy set server.forward-headers-strategy.
+ */
+@Component
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/auth/v1/login";
+    private static final int MAX_BODY_BYTES = 4096;
+    private static final byte[] REJECTED_BODY = "Too many login attempts. Please retry later.".getBytes(StandardCharsets.UTF_8);
+
+    private final boolean enabled;
+    private final LoginRateLimiter ipLimiter;
+    private final LoginRateLimiter usernameLimiter;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Counter rejectedByIp;
+    private final Counter rejectedByUsername;
+
+    public LoginRateLimitFilter(@Value("${auth.login-rate-limit.enabled:true}") boolean enabled,
+                                @Value("${auth.login-rate-limit.per-ip.permits-per-minute:300}") int ipPermitsPerMinute,
+                                @Value("${auth.login-rate-limit.per-ip.burst:50}") int ipBurst,
+                                @Value("${auth.login-rate-limit.per-username.permits-per-minute:10}") int usernamePermitsPerMinute,
+                                @Value("${auth.login-rate-limit.per-username.burst:5}") int usernameBurst,
+                                @Value("${auth.login-rate-limit.max-keys:100000}") long maxKeys,
+                                MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.ipLimiter = new LoginRateLimiter(ipPermitsPerMinute, ipBurst, maxKeys);
+        this.usernameLimiter = new LoginRateLimiter(usernamePermitsPerMinute, usernameBurst, maxKeys);
+        CaffeineCacheMetrics.monitor(meterRegistry, ipLimiter.getBuckets(), "loginRateLimitByIp");
+        CaffeineCacheMetrics.monitor(meterRegistry, usernameLimiter.getBuckets(), "loginRateLimitByUsername");
+        this.rejectedByIp = rejectedCounter(meterRegistry, "ip");
+        this.rejectedByUsername = rejectedCounter(meterRegistry, "username");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !"POST".equals(request.getMethod())
+                || !request.getRequestURI().equals(request.getContextPath() + LOGIN_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        // 1. Per-IP bucket; rejecting here costs one map lookup and one CAS
+        long wait = ipLimiter.tryAcquire(request.getRemoteAddr());
+        if (wait > 0) {
+            rejectedByIp.increment();
+            reject(response, wait);
+            return;
+        }
+
+        // 2. Read the (small) body once so the username can be throttled as well
+        if (request.getContentLengthLong() > MAX_BODY_BYTES) {
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            return;
+        }
+
+        // 3. Per-username bucket, case-insensitive so "Alice" and "alice" share one budget
+        String username = username(body);
+        if (username != null) {
+            wait = usernameLimiter.tryAcquire(username.toLowerCase(Locale.ROOT));
+            if (wait > 0) {
+                rejectedByUsername.increment();
+                reject(response, wait);
+                return;
+            }
+        }
+
+        filterChain.doFilter(new CachedBodyHttpServletRequest(request, body), response);
+    }
+
+    // Malformed bodies are left for the controller to reject; they never reach the password check
+    private String username(byte[] body) {
+        try {
+            String username = objectMapper.readTree(body).path("username").asText(null);
+            return username == null || username.isEmpty() ? null : username;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setContentLength(REJECTED_BODY.length);
+        response.getOutputStream().write(REJECTED_BODY);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String key) {
+        return Counter.builder("auth.login.rate_limited")
+                .description("Login attempts rejected before authentication by the rate limiter")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+}
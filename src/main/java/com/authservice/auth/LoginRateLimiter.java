@@ -0,0 +1,56 @@
+package com.authservice.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets keyed by an arbitrary string (client IP or username), one AtomicLong per key.
+ * Implemented as the generic cell rate algorithm: each key stores the time at which its bucket will be
+ * full again, so taking a token is a single compare-and-set with no lock and no refill thread.
+ * Keys idle for longer than a full refill are dropped, and the number of keys is capped, so memory
+ * stays bounded whatever names an attacker sends; a key evicted early just starts with a full bucket.
+ */
+public class LoginRateLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    public LoginRateLimiter(int permitsPerMinute, int burst, long maxKeys) {
+        this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / permitsPerMinute;
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(emissionIntervalNanos * burst))
+                .recordStats()
+                .build();
+    }
+
+    Cache<String, AtomicLong> getBuckets() {
+        return buckets;
+    }
+
+    // 0 when the attempt may proceed, otherwise the nanoseconds until the key gets its next token
+    public long tryAcquire(String key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    long tryAcquire(String key, long now) {
+        AtomicLong fullAt = buckets.get(key, k -> new AtomicLong(now));
+        while (true) {
+            long current = fullAt.get();
+            long theoreticalArrival = Math.max(current, now);
+            long wait = theoreticalArrival - burstToleranceNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, theoreticalArrival + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.authservice.auth;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Picks the BCrypt cost whose verify time on this host is closest to a latency budget.
+ * Times a cheap cost a few times (after a warm-up) and extrapolates, since each extra cost step doubles
+ * the work; this keeps calibration to well under a second of startup.
+ */
+final class PasswordHashCalibrator {
+
+    static final int MAX_BCRYPT_COST = 16;
+    private static final int SAMPLE_COST = 8;
+    private static final int SAMPLES = 5;
+
+    private PasswordHashCalibrator() {
+    }
+
+    static int bcryptCost(Duration target, int minCost) {
+        return bcryptCost(target, minCost, PasswordHashCalibrator::medianBCryptNanos);
+    }
+
+    // nanosAtCost: time of one hash at the given cost on this host
+    static int bcryptCost(Duration target, int minCost, IntToLongFunction nanosAtCost) {
+        long sampleNanos = Math.max(1, nanosAtCost.applyAsLong(SAMPLE_COST));
+        double doublings = Math.log((double) target.toNanos() / sampleNanos) / Math.log(2);
+        int cost = SAMPLE_COST + (int) Math.round(doublings);
+        return Math.max(minCost, Math.min(MAX_BCRYPT_COST, cost));
+    }
+
+    private static long medianBCryptNanos(int cost) {
+        BCrypt.hashpw("calibration", BCrypt.gensalt(4));
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            String salt = BCrypt.gensalt(cost);
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration", salt);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
@@ -0,0 +1,10 @@
+package com.authservice.auth;
+
+/**
+ * Thrown when the password hashing pool is saturated and a hash or verification cannot be admitted.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,10 +1,15 @@
 package com.authservice.auth;
 
 
+import com.authservice.services.AuthMetrics;
+import com.authservice.services.UserChangeLog;
 import com.authservice.services.UserDetailServicesImpl;
+import com.authservice.services.UserDetailsCache;
+import com.authservice.services.UsernameFilter;
 import com.authservice.repository.UserRepository;
 import lombok.Data;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -32,31 +37,51 @@ public class SecurityConfig {
     @Autowired
     private final UserDetailServicesImpl userDetailServices;
     @Bean
-    public UserDetailsService userDetailsService(UserRepository userRepository, PasswordEncoder passwordEncoder){
-        return new UserDetailServicesImpl(userRepository,passwordEncoder);
+    public UserDetailsService userDetailsService(UserRepository userRepository, PasswordEncoder passwordEncoder, UserDetailsCache userDetailsCache, AuthMetrics authMetrics, UsernameFilter usernameFilter, UserChangeLog userChangeLog){
+        return new UserDetailServicesImpl(userRepository,passwordEncoder,userDetailsCache,authMetrics,usernameFilter,userChangeLog);
 
     }
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthFilter jwtAuthFilter) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthFilter jwtAuthFilter, LoginRateLimitFilter loginRateLimitFilter) throws Exception {
         return http
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(Customizer.withDefaults()) // ✅ enable and configure if needed
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/auth/v1/login", "/auth/v1/signup", "/auth/v1/refreshToken")
+                        .requestMatchers("/auth/v1/login", "/auth/v1/signup", "/auth/v1/refreshToken", "/auth/v1/.well-known/jwks.json")
                         .permitAll()
+                        .requestMatchers("/auth/v1/users/import")
+                        .hasAuthority("ADMIN")
+                        .requestMatchers("/auth/v1/introspect")
+                        .hasAnyAuthority("INTROSPECT", "ADMIN")
                         .anyRequest()
                         .authenticated()
                 )
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider())
+                .addFilterBefore(loginRateLimitFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
                 .build();
     }
+    // Both filters are @Components, so Boot would also register them for every request outside the security chain
+    @Bean
+    public FilterRegistrationBean<JwtAuthFilter> jwtAuthFilterRegistration(JwtAuthFilter jwtAuthFilter) {
+        FilterRegistrationBean<JwtAuthFilter> registration = new FilterRegistrationBean<>(jwtAuthFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+    @Bean
+    public FilterRegistrationBean<LoginRateLimitFilter> loginRateLimitFilterRegistration(LoginRateLimitFilter loginRateLimitFilter) {
+        FilterRegistrationBean<LoginRateLimitFilter> registration = new FilterRegistrationBean<>(loginRateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
     @Bean
     public AuthenticationProvider authenticationProvider(){
         DaoAuthenticationProvider authenticationProvider=new DaoAuthenticationProvider();
         authenticationProvider.setUserDetailsService(userDetailServices);
         authenticationProvider.setPasswordEncoder(passwordEncoder);
+        // Rehashes a user's password on login when its stored hash is not at the current algorithm and cost
+        authenticationProvider.setUserDetailsPasswordService(userDetailServices);
         return authenticationProvider;
     }
     @Bean
@@ -0,0 +1,45 @@
+package com.authservice.auth;
+
+import com.authservice.controller.AuthController;
+import com.authservice.repository.RefreshTokenStore;
+import com.authservice.services.JwtService;
+import com.authservice.services.RefreshTokenService;
+import com.authservice.services.RefreshTokenSweeper;
+import com.authservice.services.TokenRevocationList;
+import com.authservice.services.TokenRevocationService;
+import com.authservice.services.UserChangeLog;
+import com.authservice.services.UserDetailsCache;
+import com.authservice.services.UsernameFilter;
+import com.authservice.services.VerifiedTokenCache;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@Configuration
+public class StartupConfig {
+
+    // With spring.main.lazy-initialization (prod profile) these are still built at startup:
+    // the login, refresh and JWT filter path, so the first request after a scale-out is not the slow one,
+    // and every @Scheduled poller, which a lazy bean would never start
+    @Bean
+    static LazyInitializationExcludeFilter hotPathBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                AuthController.class,
+                JwtAuthFilter.class,
+                LoginRateLimitFilter.class,
+                JwtService.class,
+                VerifiedTokenCache.class,
+                UserDetailsService.class,
+                UserDetailsCache.class,
+                PasswordEncoder.class,
+                RefreshTokenService.class,
+                RefreshTokenStore.class,
+                UsernameFilter.class,
+                TokenRevocationList.class,
+                TokenRevocationService.class,
+                UserChangeLog.class,
+                RefreshTokenSweeper.class);
+    }
+}
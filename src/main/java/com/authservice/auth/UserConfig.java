@@ -1,14 +1,47 @@
 package com.authservice.auth;
 
+import com.authservice.services.AuthMetrics;
+import io.micrometer.core.instrument.Gauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.util.Map;
+
+@Slf4j
 @Configuration
 public class UserConfig {
+
+    private static final String BCRYPT = "bcrypt";
+
     @Bean
-    public PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.password.pool-size:0}") int poolSize,
+                                           @Value("${auth.password.queue-capacity:100}") int queueCapacity,
+                                           @Value("${auth.password.bcrypt-cost:10}") int bcryptCost,
+                                           @Value("${auth.password.target-verify-ms:50}") long targetVerifyMs,
+                                           @Value("${auth.password.min-bcrypt-cost:10}") int minBcryptCost,
+                                           AuthMetrics authMetrics){
+        // 1. A pinned cost wins; 0 opts in to timing this host once and picking the cost closest to the budget
+        int cost = bcryptCost > 0
+                ? bcryptCost
+                : PasswordHashCalibrator.bcryptCost(Duration.ofMillis(targetVerifyMs), minBcryptCost);
+        log.info("Password hashing: BCrypt cost {} ({})", cost,
+                bcryptCost > 0 ? "configured" : "calibrated for " + targetVerifyMs + " ms");
+        Gauge.builder("auth.password.bcrypt.cost", () -> cost)
+                .description("BCrypt cost new password hashes are written with")
+                .register(authMetrics.getMeterRegistry());
+
+        // 2. New hashes carry an {id} prefix; hashes stored before the prefix existed are plain BCrypt.
+        //    upgradeEncoding is true for those and for a lower cost, so they are rehashed on the next login
+        PasswordEncoder bcrypt = new CalibratedBCryptPasswordEncoder(cost);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(delegating, threads, queueCapacity, authMetrics);
     }
 }
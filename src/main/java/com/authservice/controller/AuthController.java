@@ -1,23 +1,37 @@
 package com.authservice.controller;
 
 
+import com.authservice.auth.PasswordHashingRejectedException;
 import com.authservice.entities.RefreshToken;
+import com.authservice.model.AuthAuditEvent;
 import com.authservice.model.UserInfoDto;
+import com.authservice.model.VerifiedClaims;
 import com.authservice.request.AuthRequestDto;
+import com.authservice.request.ChangePasswordRequestDto;
 import com.authservice.request.RefreshTokenRequestDto;
 import com.authservice.responses.JwtResponseDto;
+import com.authservice.services.AuditLog;
+import com.authservice.services.CustomUserDetails;
 import com.authservice.services.JwtService;
 import com.authservice.services.RefreshTokenService;
+import com.authservice.services.TokenRevocationService;
 import com.authservice.services.UserDetailServicesImpl;
+import com.authservice.services.VerifiedTokenCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -40,6 +54,15 @@ public class AuthController {
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private AuditLog auditLog;
+
     /**
      * Endpoint to register a new user and immediately issue an Access Token and Refresh Token (Auto-Login).
      * @param userInfoDto The user data transfer object containing sign-up details.
@@ -48,19 +71,20 @@ public class AuthController {
     @PostMapping("/signup")
     public ResponseEntity<?> signUp(@RequestBody UserInfoDto userInfoDto) {
         // The service handles password encoding and user existence check.
-        boolean success = userDetailsService.signUp(userInfoDto);
+        Optional<CustomUserDetails> signedUp = userDetailsService.signUp(userInfoDto);
 
-        if (success) {
-            // 1. Load UserDetails (necessary for token generation)
-            UserDetails userDetails = userDetailsService.loadUserByUsername(userInfoDto.getUsername());
+        if (signedUp.isPresent()) {
+            // 1. Use the principal of the user just saved (no need to read it back)
+            CustomUserDetails userDetails = signedUp.get();
 
             // 2. Generate Access Token (JWT)
             String accessToken = jwtService.generateToken(userDetails);
 
             // 3. Create Refresh Token
-            RefreshToken refreshToken = refreshTokenService.createRefreshToken(userInfoDto.getUsername());
+            RefreshToken refreshToken = refreshTokenService.createRefreshToken(userDetails);
 
             // 4. Return tokens using JwtResponseDto (acting as an immediate login response)
+            auditLog.record(AuthAuditEvent.Type.SIGNUP_SUCCEEDED, userDetails.getUsername(), null);
             return ResponseEntity.ok(
                     JwtResponseDto.builder()
                     .accessToken(accessToken)
@@ -68,6 +92,7 @@ public class AuthController {
                     .build()
             );
         } else {
+            auditLog.record(AuthAuditEvent.Type.SIGNUP_REJECTED, userInfoDto.getUsername(), "username already exists");
             return ResponseEntity.status(HttpStatus.CONFLICT).body("User already exists.");
         }
     }
@@ -81,21 +106,29 @@ public class AuthController {
     @PostMapping("/login")
     public ResponseEntity<?> authenticateAndGetToken(@RequestBody AuthRequestDto authRequestDto) {
         // 1. Authenticate user credentials using the AuthenticationManager
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(authRequestDto.getUsername(), authRequestDto.getPassword())
-        );
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(authRequestDto.getUsername(), authRequestDto.getPassword())
+            );
+        } catch (AuthenticationException e) {
+            // Recorded, then left to Spring Security to answer as before
+            auditLog.record(AuthAuditEvent.Type.LOGIN_FAILED, authRequestDto.getUsername(), e.getClass().getSimpleName());
+            throw e;
+        }
 
         if (authentication.isAuthenticated()) {
-            // 2. Load UserDetails for token generation
-            UserDetails userDetails = userDetailsService.loadUserByUsername(authRequestDto.getUsername());
+            // 2. Reuse the principal loaded by the authentication provider for token generation
+            CustomUserDetails userDetails = principalOf(authentication);
 
             // 3. Generate Access Token (JWT)
             String accessToken = jwtService.generateToken(userDetails);
 
             // 4. Create Refresh Token
-            RefreshToken refreshToken = refreshTokenService.createRefreshToken(authRequestDto.getUsername());
+            RefreshToken refreshToken = refreshTokenService.createRefreshToken(userDetails);
 
             // 5. Return tokens using JwtResponseDto
+            auditLog.record(AuthAuditEvent.Type.LOGIN_SUCCEEDED, userDetails.getUsername(), null);
             return ResponseEntity.ok(JwtResponseDto.builder()
                     .accessToken(accessToken)
                     .token(refreshToken.getToken())
@@ -119,6 +152,7 @@ public class AuthController {
         Optional<RefreshToken> tokenOptional = refreshTokenService.findByToken(request.getToken());
 
         if (tokenOptional.isEmpty()) {
+            auditLog.record(AuthAuditEvent.Type.REFRESH_FAILED, null, "unknown refresh token");
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Refresh Token is not found or is invalid.");
         }
 
@@ -136,15 +170,111 @@ public class AuthController {
             String newAccessToken = jwtService.generateToken(userDetails);
 
             // 5. Return the new Access Token along with the existing Refresh Token
+            auditLog.record(AuthAuditEvent.Type.REFRESH_SUCCEEDED, userDetails.getUsername(), null);
             return ResponseEntity.ok(JwtResponseDto.builder()
                     .accessToken(newAccessToken)
                     .token(request.getToken())
                     .build());
 
         } catch (RuntimeException e) {
-            System.err.println("Refresh token error: " + e.getMessage());
+            // A fixed reason: the exception message carries the refresh token itself
+            auditLog.record(AuthAuditEvent.Type.REFRESH_FAILED, token.getUserInfo().getUsername(), "expired");
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body("Refresh Token is expired. Please log in again.");
         }
     }
+
+    /**
+     * Endpoint ending the caller's session: the presented access token is revoked on every node within
+     * the revocation poll interval, and the refresh token in the body, if any, is deleted.
+     * @param authorization The bearer access token being logged out; requires a valid JWT.
+     * @param request Optional body carrying the refresh token of the same user.
+     * @return ResponseEntity with 204 No Content.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                    @RequestBody(required = false) RefreshTokenRequestDto request) {
+        // 1. Served from the verified-token cache, the filter has just verified this token
+        VerifiedClaims claims = verifiedTokenCache.verify(authorization.substring(7));
+
+        // 2. Revoke the access token
+        tokenRevocationService.revoke(claims);
+        auditLog.record(AuthAuditEvent.Type.LOGOUT, claims.getSubject(), null);
+
+        // 3. Delete the refresh token, but only if it belongs to the same user
+        if (request != null && request.getToken() != null) {
+            refreshTokenService.findByToken(request.getToken())
+                    .filter(token -> claims.getSubject().equals(token.getUserInfo().getUsername()))
+                    .ifPresent(refreshTokenService::delete);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Endpoint changing the caller's password; requires a valid JWT and the current password.
+     * Every access token issued to the user so far is revoked on all nodes within the revocation poll interval
+     * and the refresh token is deleted, so all sessions end and the user logs in again with the new password.
+     * @param authentication The authentication established by JwtAuthFilter.
+     * @param request The current password and the new one.
+     * @return ResponseEntity with 204 No Content, 400 without a new password or 401 for a wrong current password.
+     */
+    @PostMapping("/changePassword")
+    public ResponseEntity<?> changePassword(Authentication authentication, @RequestBody ChangePasswordRequestDto request) {
+        if (request.getNewPassword() == null || request.getNewPassword().isEmpty()) {
+            return ResponseEntity.badRequest().body("A new password is required.");
+        }
+
+        // 1. A bearer token alone is not enough: the current password is checked like a login
+        Authentication verified;
+        try {
+            verified = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(authentication.getName(), request.getPassword()));
+        } catch (AuthenticationException e) {
+            auditLog.record(AuthAuditEvent.Type.PASSWORD_CHANGE_FAILED, authentication.getName(), e.getClass().getSimpleName());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid password.");
+        }
+        CustomUserDetails user = principalOf(verified);
+
+        // 2. Store the new hash; the cached user is evicted here and on the other nodes
+        userDetailsService.changePassword(user.getUsername(), request.getNewPassword());
+
+        // 3. End every session: no access token issued so far, and no refresh token, survives the change
+        tokenRevocationService.revokeAllForUser(user.getUsername());
+        refreshTokenService.deleteForUser(user.getUserId());
+        auditLog.record(AuthAuditEvent.Type.PASSWORD_CHANGED, user.getUsername(), null);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Endpoint returning the caller identified by the bearer access token; requires a valid JWT.
+     * @param authentication The authentication established by JwtAuthFilter.
+     * @return ResponseEntity containing the username and roles of the token's subject.
+     */
+    @GetMapping("/me")
+    public ResponseEntity<?> me(Authentication authentication) {
+        List<String> roles = new ArrayList<>();
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            roles.add(authority.getAuthority());
+        }
+        return ResponseEntity.ok(Map.of("username", authentication.getName(), "roles", roles));
+    }
+
+    // The provider returns the principal from UserDetailServicesImpl; other providers fall back to a (cached) lookup
+    private CustomUserDetails principalOf(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof CustomUserDetails principal) {
+            return principal;
+        }
+        return (CustomUserDetails) userDetailsService.loadUserByUsername(authentication.getName());
+    }
+
+    /**
+     * Rejects logins and sign-ups quickly while the password hashing pool is saturated.
+     * @return ResponseEntity with 503 and a Retry-After hint so clients back off instead of piling up.
+     */
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<?> passwordHashingRejected() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Too many concurrent logins. Please retry shortly.");
+    }
 }
@@ -0,0 +1,93 @@
+package com.authservice.controller;
+
+import com.authservice.model.TokenIntrospection;
+import com.authservice.services.TokenIntrospectionRejectedException;
+import com.authservice.services.TokenIntrospectionService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Bulk token introspection for gateways; requires the INTROSPECT or ADMIN authority.
+ * Base path: /auth/v1
+ */
+@RestController
+@RequestMapping("/auth/v1")
+public class IntrospectionController {
+
+    @Autowired
+    private TokenIntrospectionService tokenIntrospectionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${auth.introspect.max-tokens:10000}")
+    private int maxTokens;
+
+    /**
+     * Endpoint verifying a JSON array of access tokens in one round trip.
+     * @param tokens The raw access tokens, without the "Bearer " prefix.
+     * @return A JSON array with one entry per token, in request order, streamed chunk by chunk as
+     * verification finishes; 413 when more than auth.introspect.max-tokens are sent,
+     * 503 when the verification queue is full.
+     */
+    @PostMapping(value = "/introspect", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> introspect(@RequestBody List<String> tokens) {
+        if (tokens.size() > maxTokens) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "At most " + maxTokens + " tokens per request.");
+        }
+        // 1. Every chunk starts verifying right away, in parallel
+        List<CompletableFuture<List<TokenIntrospection>>> chunks = tokenIntrospectionService.introspectAll(tokens);
+
+        // 2. Chunks are written in order as soon as each is done, so the first results leave before the last are verified
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                for (CompletableFuture<List<TokenIntrospection>> chunk : chunks) {
+                    for (TokenIntrospection result : join(chunk)) {
+                        generator.writeObject(result);
+                    }
+                    generator.flush();
+                }
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Rejects batches quickly while the verification queue is full.
+     * @return ResponseEntity with 503 and a Retry-After hint so gateways back off instead of piling up.
+     */
+    @ExceptionHandler(TokenIntrospectionRejectedException.class)
+    public ResponseEntity<?> introspectionRejected() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Too many concurrent introspection requests. Please retry shortly.");
+    }
+
+    private static List<TokenIntrospection> join(CompletableFuture<List<TokenIntrospection>> chunk) throws IOException {
+        try {
+            return chunk.join();
+        } catch (CompletionException e) {
+            throw new IOException("Token introspection failed", e.getCause());
+        }
+    }
+}
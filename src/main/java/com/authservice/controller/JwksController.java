@@ -0,0 +1,39 @@
+package com.authservice.controller;
+
+import com.authservice.services.JwtSigningKeys;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Publishes the token verification keys so resource servers can validate access tokens locally.
+ * Base path: /auth/v1
+ */
+@RestController
+@RequestMapping("/auth/v1")
+public class JwksController {
+
+    @Autowired
+    private JwtSigningKeys jwtSigningKeys;
+
+    @Value("${jwt.jwks.max-age-seconds:900}")
+    private long maxAgeSeconds;
+
+    /**
+     * Endpoint returning the public signing keys as a JWK set, cacheable by clients and proxies.
+     * @return ResponseEntity containing the JWK set; empty when tokens are signed with a shared secret.
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic())
+                .body(jwtSigningKeys.toJwkSet());
+    }
+}
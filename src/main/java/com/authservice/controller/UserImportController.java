@@ -0,0 +1,35 @@
+package com.authservice.controller;
+
+import com.authservice.model.UserImportReport;
+import com.authservice.services.UserImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Administrative bulk onboarding of users; requires the ADMIN authority.
+ * Base path: /auth/v1
+ */
+@RestController
+@RequestMapping("/auth/v1")
+public class UserImportController {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    /**
+     * Endpoint importing users from a CSV body of "username,password" lines, read as it streams in.
+     * @param body The raw request body; the file is never held in memory as a whole.
+     * @return ResponseEntity containing the imported and failed counts and the failed rows by line number.
+     */
+    @PostMapping(value = "/users/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<UserImportReport> importUsers(InputStream body) throws IOException {
+        return ResponseEntity.ok(userImportService.importUsers(body));
+    }
+}
@@ -0,0 +1,31 @@
+package com.authservice.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Rows are written by JdbcAuditSink in batches; the entity defines the table for schema generation and reads
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name="auth_audit_log", indexes = @Index(name="idx_auth_audit_log_occurred_at", columnList="occurred_at"))
+public class AuditRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+    @Column(name="occurred_at", nullable = false)
+    private Instant occurredAt;
+    // AuthAuditEvent.Type name; a plain column rather than a MySQL ENUM, so new types need no migration
+    @Column(nullable = false, length = 32)
+    private String type;
+    private String username;
+    @Column(name="client_ip", length = 45)
+    private String clientIp;
+    private String detail;
+}
@@ -17,18 +17,20 @@ import java.time.Instant;
 @AllArgsConstructor
 @Builder
 @JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy.class)
-@Table(name="tokens")
+@Table(name="tokens", indexes = @Index(name = "idx_tokens_expiry_date", columnList = "expiry_date"))
 public class RefreshToken {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private  int id;
+    @Column(unique = true)
     private  String token;
     private Instant expiry_date;
 
     @OneToOne
     @JoinColumn(
             name = "user_id",
-            referencedColumnName = "user_id"
+            referencedColumnName = "user_id",
+            unique = true
     )
     private UserInfo userInfo;
 }
\ No newline at end of file
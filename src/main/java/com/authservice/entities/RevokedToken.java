@@ -0,0 +1,33 @@
+package com.authservice.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name="revoked_tokens", indexes = {
+        @Index(name="idx_revoked_tokens_revoked_at", columnList="revoked_at"),
+        @Index(name="idx_revoked_tokens_expires_at", columnList="expires_at")
+})
+public class RevokedToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+    // jti of the revoked access token; null revokes every token of the subject issued up to revoked_at
+    @Column(name="token_id", unique = true)
+    private String tokenId;
+    private String subject;
+    @Column(name="revoked_at", nullable = false)
+    private Instant revokedAt;
+    // Once this has passed no token covered by the row can still be valid, so the row can go
+    @Column(name="expires_at", nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,26 @@
+package com.authservice.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name="user_change_log", indexes = @Index(name="idx_user_change_log_changed_at", columnList="changed_at"))
+public class UserChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+    // The user whose password or roles changed; every node evicts it from its user cache
+    @Column(nullable = false)
+    private String username;
+    @Column(name="changed_at", nullable = false)
+    private Instant changedAt;
+}
@@ -12,7 +12,7 @@ import java.util.Set;
 @Data
 @Builder
 @AllArgsConstructor
-@Table(name="users")
+@Table(name="users", indexes = @Index(name="idx_users_username", columnList="username", unique=true))
 @ToString
 
 public class UserInfo {
@@ -0,0 +1,31 @@
+package com.authservice.model;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * One entry of the authentication audit trail. username and clientIp are null when not known.
+ */
+@Value
+public class AuthAuditEvent {
+
+    public enum Type {
+        LOGIN_SUCCEEDED,
+        LOGIN_FAILED,
+        SIGNUP_SUCCEEDED,
+        SIGNUP_REJECTED,
+        REFRESH_SUCCEEDED,
+        REFRESH_FAILED,
+        LOGOUT,
+        PASSWORD_CHANGED,
+        PASSWORD_CHANGE_FAILED,
+        TOKEN_REJECTED
+    }
+
+    Instant timestamp;
+    Type type;
+    String username;
+    String clientIp;
+    String detail;
+}
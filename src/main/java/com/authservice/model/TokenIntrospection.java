@@ -0,0 +1,26 @@
+package com.authservice.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Introspection result for one access token, with RFC 7662 member names.
+ * Inactive tokens (malformed, forged, expired or revoked) carry only active=false.
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenIntrospection {
+    private static final TokenIntrospection INACTIVE = new TokenIntrospection(false, null, null, null, null);
+
+    boolean active;
+    String sub;
+    String uid;
+    List<String> roles;
+    Long exp; // seconds since the epoch
+
+    public static TokenIntrospection inactive() {
+        return INACTIVE;
+    }
+}
@@ -0,0 +1,15 @@
+package com.authservice.model;
+
+import lombok.Value;
+
+/**
+ * One row of the authentication projection: a user's credentials joined with one of its role names.
+ * Built by a JPQL constructor expression, so nothing is attached to the persistence context.
+ */
+@Value
+public class UserCredentialRow {
+    String userId;
+    String username;
+    String password;
+    String roleName; // null when the user has no roles
+}
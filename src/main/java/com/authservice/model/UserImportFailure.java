@@ -0,0 +1,13 @@
+package com.authservice.model;
+
+import lombok.Value;
+
+/**
+ * A row of a bulk user import that was not imported, identified by its line in the uploaded file.
+ */
+@Value
+public class UserImportFailure {
+    long line;
+    String username;
+    String reason;
+}
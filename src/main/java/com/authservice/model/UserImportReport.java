@@ -0,0 +1,17 @@
+package com.authservice.model;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk user import. failures lists at most auth.import.max-reported-failures rows;
+ * failed always counts all of them.
+ */
+@Value
+public class UserImportReport {
+    long imported;
+    long failed;
+    long elapsedMillis;
+    List<UserImportFailure> failures;
+}
@@ -0,0 +1,25 @@
+package com.authservice.model;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims of an access token whose signature and expiry have already been checked by JwtService.
+ * Immutable, so one parse can be shared by everything that handles the request.
+ */
+@Value
+public class VerifiedClaims {
+    String subject;
+    String userId;
+    String tokenId; // jti; null for tokens issued before token ids were added
+    Instant issuedAt;
+    Instant expiresAt;
+    List<String> roles;
+
+    // No expiry means not valid at all; JwtService already rejects such tokens
+    public boolean isExpired(Instant now) {
+        return expiresAt == null || !expiresAt.isAfter(now);
+    }
+}
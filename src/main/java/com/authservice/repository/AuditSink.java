@@ -0,0 +1,16 @@
+package com.authservice.repository;
+
+import com.authservice.model.AuthAuditEvent;
+
+import java.util.List;
+
+/**
+ * Destination of the authentication audit trail, written to by AuditLog's background writer only.
+ * Selected with auth.audit.sink: "file" (default, JSON lines appended to auth.audit.file) or "jdbc"
+ * (the auth_audit_log table). Implementations may be slow; request threads never wait for them.
+ */
+public interface AuditSink {
+
+    // Appends one batch, in order; an exception loses the batch, which AuditLog counts as failed
+    void write(List<AuthAuditEvent> events) throws Exception;
+}
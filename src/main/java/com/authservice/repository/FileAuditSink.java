@@ -0,0 +1,58 @@
+package com.authservice.repository;
+
+import com.authservice.model.AuthAuditEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * AuditSink appending one JSON object per line to a local file that is only ever appended to.
+ * Each batch is flushed to the operating system before write returns; the file is not fsynced.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.audit.sink", havingValue = "file", matchIfMissing = true)
+public class FileAuditSink implements AuditSink, DisposableBean {
+
+    private final JsonFactory jsonFactory = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private final Writer writer;
+
+    public FileAuditSink(@Value("${auth.audit.file:logs/auth-audit.log}") String file) throws IOException {
+        Path path = Path.of(file).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void write(List<AuthAuditEvent> events) throws IOException {
+        for (AuthAuditEvent event : events) {
+            try (JsonGenerator json = jsonFactory.createGenerator(writer)) {
+                json.writeStartObject();
+                json.writeStringField("ts", event.getTimestamp().toString());
+                json.writeStringField("type", event.getType().name());
+                json.writeStringField("username", event.getUsername());
+                json.writeStringField("ip", event.getClientIp());
+                json.writeStringField("detail", event.getDetail());
+                json.writeEndObject();
+            }
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        writer.close();
+    }
+}
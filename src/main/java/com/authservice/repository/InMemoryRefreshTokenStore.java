@@ -0,0 +1,99 @@
+package com.authservice.repository;
+
+import com.authservice.entities.RefreshToken;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * RefreshTokenStore keeping tokens in memory, for single-node or ephemeral deployments.
+ * Lookups are lock-free map reads. Tokens are also indexed by expiry so expired ones are swept in order, and
+ * once maxEntries is exceeded the tokens closest to expiry are evicted first, which bounds memory.
+ * Tokens do not survive a restart.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.refresh-token.store", havingValue = "memory")
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private static final Comparator<RefreshToken> BY_EXPIRY = Comparator
+            .comparing(RefreshToken::getExpiry_date)
+            .thenComparing(RefreshToken::getToken);
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, RefreshToken> tokens = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, RefreshToken> tokensByUser = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<RefreshToken> byExpiry = new ConcurrentSkipListSet<>(BY_EXPIRY);
+
+    public InMemoryRefreshTokenStore(@Value("${auth.refresh-token.memory.max-entries:1000000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public void save(RefreshToken refreshToken) {
+        // compute() serializes concurrent logins of one user, so exactly one of their tokens survives
+        tokensByUser.compute(refreshToken.getUserInfo().getUserId(), (userId, previous) -> {
+            if (previous != null) {
+                tokens.remove(previous.getToken());
+                byExpiry.remove(previous);
+            }
+            tokens.put(refreshToken.getToken(), refreshToken);
+            byExpiry.add(refreshToken);
+            return refreshToken;
+        });
+        while (tokens.size() > maxEntries) {
+            RefreshToken soonestToExpire = byExpiry.pollFirst();
+            if (soonestToExpire == null) {
+                break;
+            }
+            delete(soonestToExpire);
+        }
+    }
+
+    @Override
+    public Optional<RefreshToken> findByToken(String token) {
+        return Optional.ofNullable(tokens.get(token));
+    }
+
+    @Override
+    public void delete(RefreshToken refreshToken) {
+        tokensByUser.computeIfPresent(refreshToken.getUserInfo().getUserId(),
+                (userId, current) -> current.getToken().equals(refreshToken.getToken()) ? null : current);
+        tokens.remove(refreshToken.getToken());
+        byExpiry.remove(refreshToken);
+    }
+
+    @Override
+    public void deleteForUser(String userId) {
+        RefreshToken current = tokensByUser.remove(userId);
+        if (current != null) {
+            tokens.remove(current.getToken());
+            byExpiry.remove(current);
+        }
+    }
+
+    @Override
+    public int deleteExpired(Instant now, int batchSize) {
+        int removed = 0;
+        Iterator<RefreshToken> oldestFirst = byExpiry.iterator();
+        while (removed < batchSize && oldestFirst.hasNext()) {
+            RefreshToken token = oldestFirst.next();
+            if (!token.getExpiry_date().isBefore(now)) {
+                break;
+            }
+            delete(token);
+            removed++;
+        }
+        return removed;
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+}
@@ -0,0 +1,48 @@
+package com.authservice.repository;
+
+import com.authservice.entities.RefreshToken;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * RefreshTokenStore backed by the tokens table.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.refresh-token.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaRefreshTokenStore implements RefreshTokenStore {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    public JpaRefreshTokenStore(RefreshTokenRepository refreshTokenRepository) {
+        this.refreshTokenRepository = refreshTokenRepository;
+    }
+
+    @Override
+    public void save(RefreshToken refreshToken) {
+        refreshTokenRepository.upsertForUser(
+                refreshToken.getUserInfo().getUserId(), refreshToken.getToken(), refreshToken.getExpiry_date());
+    }
+
+    @Override
+    public Optional<RefreshToken> findByToken(String token) {
+        return refreshTokenRepository.findByToken(token);
+    }
+
+    @Override
+    public void delete(RefreshToken refreshToken) {
+        refreshTokenRepository.delete(refreshToken);
+    }
+
+    @Override
+    public void deleteForUser(String userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    @Override
+    public int deleteExpired(Instant now, int batchSize) {
+        return refreshTokenRepository.deleteExpiredBatch(now, batchSize);
+    }
+}
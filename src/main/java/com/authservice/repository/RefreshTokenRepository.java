@@ -3,8 +3,13 @@ package com.authservice.repository;
 import com.authservice.entities.RefreshToken;
 import com.authservice.entities.UserInfo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +18,23 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Inte
     Optional<RefreshToken> findByToken(String token);
 
     void deleteByUserInfo(UserInfo userInfo);
+
+    // Inserts the user's token or replaces the existing one in a single statement, atomic on the unique user_id
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO tokens (user_id, token, expiry_date) VALUES (:userId, :token, :expiryDate) "
+            + "ON DUPLICATE KEY UPDATE token = VALUES(token), expiry_date = VALUES(expiry_date)",
+            nativeQuery = true)
+    int upsertForUser(@Param("userId") String userId, @Param("token") String token, @Param("expiryDate") Instant expiryDate);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM tokens WHERE user_id = :userId", nativeQuery = true)
+    int deleteByUserId(@Param("userId") String userId);
+
+    // Removes at most batchSize expired tokens through the expiry_date index, in its own short transaction
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM tokens WHERE expiry_date < :now LIMIT :batchSize", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Instant now, @Param("batchSize") int batchSize);
 }
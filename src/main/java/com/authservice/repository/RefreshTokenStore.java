@@ -0,0 +1,27 @@
+package com.authservice.repository;
+
+import com.authservice.entities.RefreshToken;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Storage of refresh tokens used by RefreshTokenService.
+ * Selected with auth.refresh-token.store: "jpa" (default, the tokens table) or "memory" (this node only).
+ * Every implementation keeps at most one token per user.
+ */
+public interface RefreshTokenStore {
+
+    // Stores the token as the only refresh token of its user, replacing any previous one atomically
+    void save(RefreshToken refreshToken);
+
+    Optional<RefreshToken> findByToken(String token);
+
+    void delete(RefreshToken refreshToken);
+
+    // Removes the user's token, if any, so it can no longer mint access tokens
+    void deleteForUser(String userId);
+
+    // Removes at most batchSize tokens that expired before now and returns how many were removed
+    int deleteExpired(Instant now, int batchSize);
+}
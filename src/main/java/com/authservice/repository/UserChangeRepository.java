@@ -0,0 +1,24 @@
+package com.authservice.repository;
+
+import com.authservice.entities.UserChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface UserChangeRepository extends JpaRepository<UserChange, Long> {
+
+    // Incremental poll through the changed_at index: only rows written since the previous poll
+    List<UserChange> findByChangedAtAfter(Instant since);
+
+    @Modifying
+    @Transactional
+    @Query("delete from UserChange c where c.changedAt < :before")
+    int deleteOlderThan(@Param("before") Instant before);
+}
@@ -2,12 +2,36 @@ package com.authservice.repository;
 
 
 import com.authservice.entities.UserInfo;
+import com.authservice.model.UserCredentialRow;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository  extends CrudRepository<UserInfo, Long> {
 
     public UserInfo findByUsername(String username);
 
+    boolean existsByUsername(String username);
+
+    // Authentication read path: only the columns a principal needs, one row per role, in a single statement
+    @Query("select new com.authservice.model.UserCredentialRow(u.userId, u.username, u.password, r.name) " +
+            "from UserInfo u left join u.roles r where u.username = :username")
+    List<UserCredentialRow> findCredentialsByUsername(@Param("username") String username);
+
+    // Set-based existence check for bulk imports; one statement per chunk instead of one per user
+    @Query("select u.username from UserInfo u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    // Rehash on login and password change: rewrites only the password column, without loading the user and its roles
+    @Modifying
+    @Transactional
+    @Query("update UserInfo u set u.password = :password where u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+
 }
@@ -0,0 +1,15 @@
+package com.authservice.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ChangePasswordRequestDto {
+    private String password;
+    private String newPassword;
+}
@@ -0,0 +1,145 @@
+package com.authservice.services;
+
+import com.authservice.model.AuthAuditEvent;
+import com.authservice.repository.AuditSink;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authentication audit trail. Request threads only put events into a bounded lock-free ring buffer;
+ * one background writer drains it every flush interval and hands the events to the AuditSink in batches.
+ * A slow or failing sink therefore never adds latency to a request: once the buffer is full, new events
+ * are dropped and counted. auth.audit.events{result} counts written, dropped and failed (lost in a sink
+ * error) events, and auth.audit.buffer.size shows how far the writer is behind.
+ * Final because the constructor hands this::flushQuietly to the writer: no subclass can be observed half-built.
+ */
+@Slf4j
+@Component
+public final class AuditLog implements DisposableBean {
+
+    private final AuditSink sink;
+    private final AuditRingBuffer<AuthAuditEvent> buffer;
+    private final int batchSize;
+    // Touched only inside flush(), which is synchronized; the ring buffer allows a single consumer
+    private final List<AuthAuditEvent> batch;
+    private final ScheduledExecutorService writer;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+
+    public AuditLog(AuditSink sink,
+                    MeterRegistry meterRegistry,
+                    @Value("${auth.audit.buffer-size:65536}") int bufferSize,
+                    @Value("${auth.audit.batch-size:500}") int batchSize,
+                    @Value("${auth.audit.flush-interval-ms:1000}") long flushIntervalMs) {
+        this.sink = sink;
+        this.buffer = new AuditRingBuffer<>(bufferSize);
+        this.batchSize = batchSize;
+        this.batch = new ArrayList<>(batchSize);
+        this.written = eventCounter(meterRegistry, "written");
+        this.dropped = eventCounter(meterRegistry, "dropped");
+        this.failed = eventCounter(meterRegistry, "failed");
+        Gauge.builder("auth.audit.buffer.size", buffer, AuditRingBuffer::size)
+                .description("Audit events waiting for the background writer")
+                .register(meterRegistry);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("audit-writer-");
+        threadFactory.setDaemon(true);
+        this.writer = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        writer.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // For request threads: the client IP is taken from the current request, if there is one
+    public void record(AuthAuditEvent.Type type, String username, String detail) {
+        record(type, username, currentClientIp(), detail);
+    }
+
+    public void record(AuthAuditEvent.Type type, String username, String clientIp, String detail) {
+        if (!buffer.offer(new AuthAuditEvent(Instant.now(), type, username, clientIp, detail))) {
+            dropped.increment();
+        }
+    }
+
+    // Writes everything buffered so far, batch by batch; returns the number of events taken from the buffer
+    public synchronized int flush() {
+        int total = 0;
+        int drained;
+        do {
+            batch.clear();
+            drained = buffer.drain(batch, batchSize);
+            if (drained > 0) {
+                try {
+                    sink.write(batch);
+                    written.increment(drained);
+                } catch (Exception e) {
+                    // One event the sink rejects must not take the rest of the batch with it
+                    log.warn("Audit sink failed on a batch of {}, writing its events one by one: {}", drained, e.toString());
+                    writeEach();
+                }
+            }
+            total += drained;
+        } while (drained == batchSize);
+        batch.clear();
+        return total;
+    }
+
+    private void writeEach() {
+        int lost = 0;
+        for (AuthAuditEvent event : batch) {
+            try {
+                sink.write(List.of(event));
+                written.increment();
+            } catch (Exception e) {
+                failed.increment();
+                lost++;
+            }
+        }
+        if (lost > 0) {
+            log.warn("Audit sink failed, {} events lost", lost);
+        }
+    }
+
+    // Stops the writer, then writes what is left so no accepted event is lost on a clean shutdown
+    @Override
+    public void destroy() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+
+    // An exception escaping a scheduled task would cancel every later flush
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Audit flush failed", e);
+        }
+    }
+
+    private static String currentClientIp() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest().getRemoteAddr()
+                : null;
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.audit.events")
+                .description("Authentication audit events by what became of them")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,67 @@
+package com.authservice.services;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer.
+ * A producer claims a slot with one compare-and-set on the producer index and then publishes its element;
+ * when the buffer is full offer returns false at once instead of waiting, so request threads never block.
+ * The consumer takes elements in claim order and stops at a claimed slot that is not published yet.
+ */
+final class AuditRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    // Written by the consumer only; producers read it to see how much room is left
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    // The capacity is rounded up to a power of two
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    int size() {
+        return (int) Math.max(0, producerIndex.get() - consumerIndex.get());
+    }
+
+    boolean offer(E element) {
+        long index;
+        do {
+            index = producerIndex.get();
+            if (index - consumerIndex.get() > mask) {
+                return false;
+            }
+        } while (!producerIndex.compareAndSet(index, index + 1));
+        slots.setRelease((int) index & mask, element);
+        return true;
+    }
+
+    // Single consumer only; moves up to max elements into target and returns how many
+    int drain(List<? super E> target, int max) {
+        long index = consumerIndex.get();
+        int drained = 0;
+        while (drained < max) {
+            int slot = (int) index & mask;
+            E element = slots.getAcquire(slot);
+            if (element == null) {
+                break;
+            }
+            slots.setPlain(slot, null);
+            target.add(element);
+            index++;
+            drained++;
+            // Frees the slot for producers; the release orders it after the slot was cleared
+            consumerIndex.setRelease(index);
+        }
+        return drained;
+    }
+}
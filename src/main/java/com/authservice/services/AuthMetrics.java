@@ -0,0 +1,85 @@
+package com.authservice.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Latency timers for each stage of the auth pipeline and counters for JwtAuthFilter outcomes.
+ * Published as auth.stage.duration{stage} and auth.filter.requests{outcome} on /actuator/metrics.
+ * Tags come from fixed enums so cardinality stays bounded.
+ */
+@Component
+public class AuthMetrics {
+
+    public enum Stage {
+        PASSWORD_HASH,
+        PASSWORD_VERIFY,
+        USER_LOOKUP,
+        JWT_SIGN,
+        JWT_VERIFY,
+        REFRESH_TOKEN_ISSUE,
+        REFRESH_TOKEN_LOOKUP,
+        REFRESH_TOKEN_EXPIRE
+    }
+
+    public enum FilterOutcome {
+        MISSING,
+        INVALID,
+        EXPIRED,
+        REVOKED,
+        OK
+    }
+
+    // Buckets around the login SLO: sub-millisecond token work up to BCrypt-dominated logins
+    private static final Duration[] SLO_BUCKETS = {
+            Duration.ofNanos(100_000), Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(10),
+            Duration.ofMillis(25), Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250),
+            Duration.ofMillis(500), Duration.ofSeconds(1)
+    };
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+    private final Map<FilterOutcome, Counter> filterOutcomes = new EnumMap<>(FilterOutcome.class);
+
+    public AuthMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, Timer.builder("auth.stage.duration")
+                    .description("Latency of one stage of the authentication pipeline")
+                    .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                    .serviceLevelObjectives(SLO_BUCKETS)
+                    .register(meterRegistry));
+        }
+        for (FilterOutcome outcome : FilterOutcome.values()) {
+            filterOutcomes.put(outcome, Counter.builder("auth.filter.requests")
+                    .description("Requests seen by JwtAuthFilter by token outcome")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    public MeterRegistry getMeterRegistry() {
+        return meterRegistry;
+    }
+
+    // Times work, including when it throws
+    public <T> T record(Stage stage, Supplier<T> work) {
+        return timers.get(stage).record(work);
+    }
+
+    public void record(Stage stage, Runnable work) {
+        timers.get(stage).record(work);
+    }
+
+    public void filterOutcome(FilterOutcome outcome) {
+        filterOutcomes.get(outcome).increment();
+    }
+}
@@ -2,6 +2,7 @@ package com.authservice.services;
 
 import  com.authservice.entities.UserInfo;
 import com.authservice.entities.UserRole;
+import com.authservice.model.UserCredentialRow;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -10,18 +11,44 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
-public class CustomUserDetails extends UserInfo implements UserDetails {
-    private String username;
-    public String password;
-    Collection<? extends GrantedAuthority> authorities;
+// Immutable so one instance can be shared through UserDetailsCache by concurrent requests
+public final class CustomUserDetails implements UserDetails {
+    private final String userId;
+    private final String username;
+    private final String password;
+    private final List<GrantedAuthority> authorities;
     public CustomUserDetails(UserInfo byUsername){
+        this.userId=byUsername.getUserId();
         this.username=byUsername.getUsername();
         this.password=byUsername.getPassword();
-        List<GrantedAuthority> auths= new ArrayList<>();
+        List<GrantedAuthority> auths= new ArrayList<>(byUsername.getRoles().size());
         for(UserRole role: byUsername.getRoles()){
             auths.add( new SimpleGrantedAuthority(role.getName().toUpperCase()));
         }
-        this.authorities=auths;
+        this.authorities=List.copyOf(auths);
+    }
+    public CustomUserDetails(String userId, String username, String password, Collection<? extends GrantedAuthority> authorities){
+        this.userId=userId;
+        this.username=username;
+        this.password=password;
+        this.authorities=List.copyOf(authorities);
+    }
+    // Rows of UserRepository.findCredentialsByUsername for a single user; null when there are none
+    public static CustomUserDetails fromRows(List<UserCredentialRow> rows){
+        if(rows.isEmpty()){
+            return null;
+        }
+        UserCredentialRow first=rows.get(0);
+        List<GrantedAuthority> auths= new ArrayList<>(rows.size());
+        for(UserCredentialRow row: rows){
+            if(row.getRoleName()!=null){
+                auths.add(new SimpleGrantedAuthority(row.getRoleName().toUpperCase()));
+            }
+        }
+        return new CustomUserDetails(first.getUserId(), first.getUsername(), first.getPassword(), auths);
+    }
+    public String getUserId(){
+        return userId;
     }
     @Override
     public Collection<? extends GrantedAuthority>getAuthorities(){return authorities;}
@@ -0,0 +1,267 @@
+package com.authservice.services;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Issues HS256 access tokens for JwtService's fixed claim set without going through jjwt and Jackson.
+ * The output is byte for byte what the jjwt builder produces for the same claims: header {"alg":"HS256"},
+ * payload {"uid","roles","jti","sub","iat","exp"} in that order, strings escaped the way Jackson escapes them
+ * (characters outside the Basic Multilingual Plane as two six-character surrogate escapes, not four UTF-8 bytes),
+ * Base64URL without padding. The payload is written straight into a reused byte buffer and signed with a
+ * reused Mac, so issuing a token allocates little more than the returned String.
+ * Buffers and Mac are kept per platform thread; virtual threads, which live for a single request, borrow
+ * them from a shared pool instead so they are not rebuilt per token.
+ */
+final class Hs256TokenEncoder {
+
+    // Base64URL of {"alg":"HS256"} followed by the separator
+    private static final byte[] HEADER = "eyJhbGciOiJIUzI1NiJ9.".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BASE64URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] UUID_HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    // Jackson's escapes for control characters use upper-case hex digits
+    private static final byte[] ESCAPE_HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final String HMAC_SHA256 = "HmacSHA256";
+    private static final int SIGNATURE_BYTES = 32;
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Buffers> perThread = ThreadLocal.withInitial(this::newBuffers);
+    private final Queue<Buffers> shared = new ConcurrentLinkedQueue<>();
+
+    Hs256TokenEncoder(byte[] secret) {
+        this.key = new SecretKeySpec(secret, HMAC_SHA256);
+        newBuffers(); // fail at startup, not on the first login, if HmacSHA256 is unavailable
+    }
+
+    // userId is left out when null, like the uid claim in JwtService
+    String encode(String userId, Collection<? extends GrantedAuthority> authorities, String subject,
+                  long issuedAtMillis, long lifetimeMillis) {
+        if (!Thread.currentThread().isVirtual()) {
+            return perThread.get().encode(userId, authorities, subject, issuedAtMillis, lifetimeMillis);
+        }
+        Buffers buffers = shared.poll();
+        if (buffers == null) {
+            buffers = newBuffers();
+        }
+        try {
+            return buffers.encode(userId, authorities, subject, issuedAtMillis, lifetimeMillis);
+        } finally {
+            shared.offer(buffers);
+        }
+    }
+
+    private Buffers newBuffers() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_SHA256);
+            mac.init(key);
+            // DRBG instances do not share a lock the way UUID.randomUUID's SecureRandom does
+            return new Buffers(mac, SecureRandom.getInstance("DRBG"));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HS256 signing is not available", e);
+        }
+    }
+
+    private static final class Buffers {
+        private final Mac mac;
+        private final SecureRandom random;
+        private final byte[] tokenId = new byte[16];
+        private final byte[] signature = new byte[SIGNATURE_BYTES];
+        private byte[] payload = new byte[512];
+        private byte[] token = new byte[1024];
+        private int length;
+
+        private Buffers(Mac mac, SecureRandom random) {
+            this.mac = mac;
+            this.random = random;
+        }
+
+        String encode(String userId, Collection<? extends GrantedAuthority> authorities, String subject,
+                      long issuedAtMillis, long lifetimeMillis) {
+            // 1. Room for the worst case: every char written as a six-byte escape
+            int chars = (userId == null ? 0 : userId.length()) + (subject == null ? 0 : subject.length());
+            for (GrantedAuthority authority : authorities) {
+                chars += authority.getAuthority().length() + 3;
+            }
+            int payloadBound = 128 + 6 * chars;
+            if (payload.length < payloadBound) {
+                payload = new byte[payloadBound];
+            }
+
+            // 2. Payload JSON in jjwt's claim order
+            length = 0;
+            put('{');
+            if (userId != null) {
+                putAscii("\"uid\":");
+                putString(userId);
+                put(',');
+            }
+            putAscii("\"roles\":[");
+            boolean first = true;
+            for (GrantedAuthority authority : authorities) {
+                if (!first) {
+                    put(',');
+                }
+                putString(authority.getAuthority());
+                first = false;
+            }
+            putAscii("],\"jti\":\"");
+            putTokenId();
+            put('"');
+            if (subject != null) {
+                putAscii(",\"sub\":");
+                putString(subject);
+            }
+            putAscii(",\"iat\":");
+            putLong(issuedAtMillis / 1000);
+            putAscii(",\"exp\":");
+            putLong((issuedAtMillis + lifetimeMillis) / 1000);
+            put('}');
+            int payloadLength = length;
+
+            // 3. header.payload, signed in place, then .signature
+            int tokenBound = HEADER.length + (payloadLength + 2) / 3 * 4 + 1 + 44;
+            if (token.length < tokenBound) {
+                token = new byte[tokenBound];
+            }
+            System.arraycopy(HEADER, 0, token, 0, HEADER.length);
+            int tokenLength = base64Url(payload, payloadLength, token, HEADER.length);
+            mac.update(token, 0, tokenLength);
+            try {
+                mac.doFinal(signature, 0);
+            } catch (ShortBufferException e) {
+                throw new IllegalStateException(e);
+            }
+            token[tokenLength++] = '.';
+            tokenLength = base64Url(signature, SIGNATURE_BYTES, token, tokenLength);
+            return new String(token, 0, tokenLength, StandardCharsets.ISO_8859_1);
+        }
+
+        private void put(char c) {
+            payload[length++] = (byte) c;
+        }
+
+        private void putAscii(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                payload[length++] = (byte) value.charAt(i);
+            }
+        }
+
+        // A JSON string as Jackson writes it: UTF-8, with quote, backslash, control characters and surrogates escaped
+        private void putString(String value) {
+            put('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    if (c == '"' || c == '\\') {
+                        put('\\');
+                        put(c);
+                    } else if (c >= 0x20) {
+                        put(c);
+                    } else {
+                        putControl(c);
+                    }
+                } else if (c < 0x800) {
+                    payload[length++] = (byte) (0xC0 | (c >> 6));
+                    payload[length++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    // Jackson escapes each surrogate on its own, paired or lone, with upper-case hex
+                    putEscape(c);
+                } else {
+                    payload[length++] = (byte) (0xE0 | (c >> 12));
+                    payload[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    payload[length++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            put('"');
+        }
+
+        private void putControl(char c) {
+            put('\\');
+            switch (c) {
+                case '\b' -> put('b');
+                case '\t' -> put('t');
+                case '\n' -> put('n');
+                case '\f' -> put('f');
+                case '\r' -> put('r');
+                default -> {
+                    putAscii("u00");
+                    payload[length++] = ESCAPE_HEX[c >> 4];
+                    payload[length++] = ESCAPE_HEX[c & 0xF];
+                }
+            }
+        }
+
+        private void putEscape(char c) {
+            putAscii("\\u");
+            payload[length++] = ESCAPE_HEX[c >> 12];
+            payload[length++] = ESCAPE_HEX[(c >> 8) & 0xF];
+            payload[length++] = ESCAPE_HEX[(c >> 4) & 0xF];
+            payload[length++] = ESCAPE_HEX[c & 0xF];
+        }
+
+        private void putLong(long value) {
+            if (value < 0) {
+                put('-');
+                value = -value;
+            }
+            int start = length;
+            do {
+                payload[length++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            for (int i = start, j = length - 1; i < j; i++, j--) {
+                byte digit = payload[i];
+                payload[i] = payload[j];
+                payload[j] = digit;
+            }
+        }
+
+        // Random (version 4) UUID in its usual 8-4-4-4-12 text form
+        private void putTokenId() {
+            random.nextBytes(tokenId);
+            tokenId[6] = (byte) ((tokenId[6] & 0x0F) | 0x40);
+            tokenId[8] = (byte) ((tokenId[8] & 0x3F) | 0x80);
+            for (int i = 0; i < tokenId.length; i++) {
+                if (i == 4 || i == 6 || i == 8 || i == 10) {
+                    put('-');
+                }
+                payload[length++] = UUID_HEX[(tokenId[i] >> 4) & 0xF];
+                payload[length++] = UUID_HEX[tokenId[i] & 0xF];
+            }
+        }
+    }
+
+    // Unpadded Base64URL of source[0, sourceLength) written at target[offset]; returns the new end offset
+    private static int base64Url(byte[] source, int sourceLength, byte[] target, int offset) {
+        int i = 0;
+        for (; i + 2 < sourceLength; i += 3) {
+            int bits = (source[i] & 0xFF) << 16 | (source[i + 1] & 0xFF) << 8 | (source[i + 2] & 0xFF);
+            target[offset++] = BASE64URL[bits >>> 18];
+            target[offset++] = BASE64URL[(bits >>> 12) & 0x3F];
+            target[offset++] = BASE64URL[(bits >>> 6) & 0x3F];
+            target[offset++] = BASE64URL[bits & 0x3F];
+        }
+        int remaining = sourceLength - i;
+        if (remaining == 1) {
+            int bits = (source[i] & 0xFF) << 16;
+            target[offset++] = BASE64URL[bits >>> 18];
+            target[offset++] = BASE64URL[(bits >>> 12) & 0x3F];
+        } else if (remaining == 2) {
+            int bits = (source[i] & 0xFF) << 16 | (source[i + 1] & 0xFF) << 8;
+            target[offset++] = BASE64URL[bits >>> 18];
+            target[offset++] = BASE64URL[(bits >>> 12) & 0x3F];
+            target[offset++] = BASE64URL[(bits >>> 6) & 0x3F];
+        }
+        return offset;
+    }
+}
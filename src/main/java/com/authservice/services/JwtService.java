@@ -1,24 +1,59 @@
 package com.authservice.services;
 
 
+import com.authservice.model.VerifiedClaims;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MissingClaimException;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
-    private static final String SECRET_KEY = " your Secret key (must be at least 256 bits for HS256 ";
+    private static final long ACCESS_TOKEN_EXPIRATION_MS = 1000 * 60 * 60 * 10; // 10 hours
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLES_CLAIM = "roles";
+
+    // Keys and parser are immutable and thread-safe, so they are built once instead of per token
+    private final JwtSigningKeys signingKeys;
+    private final JwtParser jwtParser;
+    private final AuthMetrics authMetrics;
+    // Fast path for HS256 without a kid (the default); null when tokens are signed through jjwt
+    private final Hs256TokenEncoder hs256Encoder;
+
+    public JwtService(JwtSigningKeys signingKeys, AuthMetrics authMetrics) {
+        this.signingKeys = signingKeys;
+        this.authMetrics = authMetrics;
+        this.hs256Encoder = signingKeys.getAlgorithm() == SignatureAlgorithm.HS256 && signingKeys.getKeyId() == null
+                ? new Hs256TokenEncoder(signingKeys.getSigningKey().getEncoded())
+                : null;
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(signingKeys)
+                .build();
+    }
+
+    // Verify signature and expiry once and return everything callers need from the token
+    public VerifiedClaims verifyToken(String token) {
+        return authMetrics.record(AuthMetrics.Stage.JWT_VERIFY, () -> toVerifiedClaims(extractAllClaims(token)));
+    }
 
     // Extract username from token
     public String extractUsername(String token) {
@@ -36,45 +71,95 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
-    // Generate token with just username
+    // Generate token with user id and role names, enough to authenticate without a database lookup
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        String userId = userDetails instanceof CustomUserDetails customUserDetails ? customUserDetails.getUserId() : null;
+        if (hs256Encoder != null) {
+            // Same bytes as the jjwt path below, without the claims map, Dates and JSON serializer
+            return authMetrics.record(AuthMetrics.Stage.JWT_SIGN, () -> hs256Encoder.encode(userId,
+                    userDetails.getAuthorities(), userDetails.getUsername(), System.currentTimeMillis(), ACCESS_TOKEN_EXPIRATION_MS));
+        }
+        Map<String, Object> claims = new LinkedHashMap<>();
+        if (userId != null) {
+            claims.put(USER_ID_CLAIM, userId);
+        }
+        List<String> roles = new ArrayList<>();
+        for (GrantedAuthority authority : userDetails.getAuthorities()) {
+            roles.add(authority.getAuthority());
+        }
+        claims.put(ROLES_CLAIM, roles);
+        return generateToken(claims, userDetails);
     }
 
     // Generate token with extra claims
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return Jwts.builder()
-                .setClaims(extraClaims)
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10)) // 10 hours
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
-                .compact();
+        return authMetrics.record(AuthMetrics.Stage.JWT_SIGN, () -> {
+            JwtBuilder builder = Jwts.builder();
+            if (signingKeys.getKeyId() != null) {
+                builder.setHeaderParam(JwsHeader.KEY_ID, signingKeys.getKeyId());
+            }
+            return builder
+                    .setClaims(extraClaims)
+                    .setId(UUID.randomUUID().toString())
+                    .setSubject(userDetails.getUsername())
+                    .setIssuedAt(new Date(System.currentTimeMillis()))
+                    .setExpiration(new Date(System.currentTimeMillis() + ACCESS_TOKEN_EXPIRATION_MS))
+                    .signWith(signingKeys.getSigningKey(), signingKeys.getAlgorithm())
+                    .compact();
+        });
+    }
+
+    // Longest time an access token issued now stays valid; bounds how long a revocation must be remembered
+    public Duration getAccessTokenLifetime() {
+        return Duration.ofMillis(ACCESS_TOKEN_EXPIRATION_MS);
     }
 
     // Validate token
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(verifyToken(token), userDetails);
     }
 
-    // Check if expired
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    // Validate already verified claims without parsing the token again
+    public boolean isTokenValid(VerifiedClaims claims, UserDetails userDetails) {
+        return claims.getSubject() != null
+                && claims.getSubject().equals(userDetails.getUsername())
+                && !claims.isExpired(Instant.now());
     }
 
     // Extract claims
+    // jjwt only checks exp when it is present; a signed token without one must not be valid forever
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Jws<Claims> jws = jwtParser.parseClaimsJws(token);
+        if (jws.getBody().getExpiration() == null) {
+            throw new MissingClaimException(jws.getHeader(), jws.getBody(), "JWT has no expiration (exp) claim");
+        }
+        return jws.getBody();
+    }
+
+    private static VerifiedClaims toVerifiedClaims(Claims claims) {
+        return new VerifiedClaims(
+                claims.getSubject(),
+                claims.get(USER_ID_CLAIM, String.class),
+                claims.getId(),
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration()),
+                extractRoles(claims)
+        );
+    }
+
+    private static List<String> extractRoles(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(roles instanceof List<?> values)) {
+            return Collections.emptyList();
+        }
+        List<String> names = new ArrayList<>(values.size());
+        for (Object value : values) {
+            names.add(String.valueOf(value));
+        }
+        return Collections.unmodifiableList(names);
     }
 
-    // Decode secret key
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static Instant toInstant(Date date) {
+        return date == null ? null : date.toInstant();
     }
 }
@@ -0,0 +1,195 @@
+package com.authservice.services;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keys used to sign and verify access tokens.
+ * HS256 signs with the shared jwt.secret and puts no kid in the header. Asymmetric algorithms
+ * (ES256, ES384, RS256, ...) sign with the active private key and set its kid. Every public key in the key
+ * directory stays valid for verification, which is what allows rotation. Public keys are published as a JWK set.
+ */
+public class JwtSigningKeys extends SigningKeyResolverAdapter {
+
+    private static final String PRIVATE_KEY_SUFFIX = ".key.pem";
+    private static final String PUBLIC_KEY_SUFFIX = ".pub.pem";
+
+    private final SignatureAlgorithm algorithm;
+    private final Key signingKey;
+    private final String keyId;
+    private final Key hmacKey;
+    private final Map<String, PublicKey> verificationKeys;
+
+    private JwtSigningKeys(SignatureAlgorithm algorithm, Key signingKey, String keyId, Key hmacKey,
+                           Map<String, PublicKey> verificationKeys) {
+        this.algorithm = algorithm;
+        this.signingKey = signingKey;
+        this.keyId = keyId;
+        this.hmacKey = hmacKey;
+        this.verificationKeys = Collections.unmodifiableMap(verificationKeys);
+    }
+
+    // Shared-secret signing, the historical behaviour
+    public static JwtSigningKeys hmac(String base64Secret) {
+        Key key = hmacKey(base64Secret);
+        return new JwtSigningKeys(SignatureAlgorithm.HS256, key, null, key, Collections.emptyMap());
+    }
+
+    /**
+     * Loads every "{kid}.pub.pem" (X.509) in keyDirectory as a verification key and signs with "{activeKeyId}.key.pem" (PKCS#8).
+     * legacyHmacSecret, when not null, keeps kid-less HS256 tokens issued before the switch verifiable.
+     */
+    public static JwtSigningKeys asymmetric(SignatureAlgorithm algorithm, Path keyDirectory, String activeKeyId,
+                                            String legacyHmacSecret) {
+        if (!algorithm.isEllipticCurve() && !algorithm.isRsa()) {
+            throw new IllegalArgumentException(algorithm + " is not an asymmetric signature algorithm");
+        }
+        String keyFamily = algorithm.isEllipticCurve() ? "EC" : "RSA";
+        Map<String, PublicKey> publicKeys = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(keyDirectory, "*" + PUBLIC_KEY_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String kid = name.substring(0, name.length() - PUBLIC_KEY_SUFFIX.length());
+                publicKeys.put(kid, KeyFactory.getInstance(keyFamily).generatePublic(new X509EncodedKeySpec(readPem(file))));
+            }
+            if (!publicKeys.containsKey(activeKeyId)) {
+                throw new IllegalStateException("No public key " + activeKeyId + PUBLIC_KEY_SUFFIX + " in " + keyDirectory);
+            }
+            PrivateKey privateKey = KeyFactory.getInstance(keyFamily)
+                    .generatePrivate(new PKCS8EncodedKeySpec(readPem(keyDirectory.resolve(activeKeyId + PRIVATE_KEY_SUFFIX))));
+            Key legacyKey = legacyHmacSecret == null ? null : hmacKey(legacyHmacSecret);
+            return new JwtSigningKeys(algorithm, privateKey, activeKeyId, legacyKey, publicKeys);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read signing keys from " + keyDirectory, e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid signing key in " + keyDirectory, e);
+        }
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public Key getSigningKey() {
+        return signingKey;
+    }
+
+    // kid header of newly issued tokens, null for HS256
+    public String getKeyId() {
+        return keyId;
+    }
+
+    // jjwt 0.11 declares this parameter as a raw JwsHeader; JwsHeader<?> would not override it
+    @Override
+    public Key resolveSigningKey(@SuppressWarnings("rawtypes") JwsHeader header, Claims claims) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            if (hmacKey == null) {
+                throw new JwtException("Token has no kid header");
+            }
+            return hmacKey;
+        }
+        PublicKey key = verificationKeys.get(kid);
+        if (key == null) {
+            throw new JwtException("Unknown signing key: " + kid);
+        }
+        return key;
+    }
+
+    // JWK set (RFC 7517) of the public verification keys; empty when signing with a shared secret
+    public Map<String, Object> toJwkSet() {
+        List<Map<String, Object>> keys = new ArrayList<>(verificationKeys.size());
+        for (Map.Entry<String, PublicKey> entry : verificationKeys.entrySet()) {
+            keys.add(toJwk(entry.getKey(), entry.getValue()));
+        }
+        return Map.of("keys", keys);
+    }
+
+    private Map<String, Object> toJwk(String kid, PublicKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        if (key instanceof ECPublicKey ecKey) {
+            int size = (ecKey.getParams().getCurve().getField().getFieldSize() + 7) / 8;
+            jwk.put("kty", "EC");
+            jwk.put("crv", curveName(ecKey.getParams().getCurve().getField().getFieldSize()));
+            jwk.put("x", base64Url(ecKey.getW().getAffineX(), size));
+            jwk.put("y", base64Url(ecKey.getW().getAffineY(), size));
+        } else if (key instanceof RSAPublicKey rsaKey) {
+            jwk.put("kty", "RSA");
+            jwk.put("n", base64Url(rsaKey.getModulus(), 0));
+            jwk.put("e", base64Url(rsaKey.getPublicExponent(), 0));
+        }
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", algorithm.getValue());
+        return jwk;
+    }
+
+    private static String curveName(int fieldSize) {
+        return switch (fieldSize) {
+            case 256 -> "P-256";
+            case 384 -> "P-384";
+            case 521 -> "P-521";
+            default -> throw new IllegalStateException("Unsupported EC field size " + fieldSize);
+        };
+    }
+
+    // Unsigned big-endian bytes, left padded to length (0 keeps the minimal length)
+    private static String base64Url(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (bytes.length < length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static byte[] readPem(Path file) throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (String line : Files.readAllLines(file)) {
+            if (!line.startsWith("-----")) {
+                body.append(line.trim());
+            }
+        }
+        return Base64.getDecoder().decode(body.toString());
+    }
+
+    private static Key hmacKey(String base64Secret) {
+        if (base64Secret == null || base64Secret.isBlank()) {
+            throw new IllegalStateException("jwt.secret is not set; provide it through the JWT_SECRET environment variable");
+        }
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
+    }
+}
@@ -2,7 +2,7 @@ package com.authservice.services;
 
 import com.authservice.entities.RefreshToken;
 import com.authservice.entities.UserInfo;
-import com.authservice.repository.RefreshTokenRepository;
+import com.authservice.repository.RefreshTokenStore;
 import com.authservice.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -19,42 +19,62 @@ public class RefreshTokenService {
     private UserRepository userRepository;
 
     @Autowired
-    private RefreshTokenRepository refreshTokenRepository;
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private AuthMetrics authMetrics;
 
 
     private static final long REFRESH_TOKEN_EXPIRATION_MS = 600000;
     @Transactional
     public RefreshToken createRefreshToken(String username) {
+        return authMetrics.record(AuthMetrics.Stage.REFRESH_TOKEN_ISSUE, () -> {
+            UserInfo extractedUserInfo = userRepository.findByUsername(username);
 
-        UserInfo extractedUserInfo = userRepository.findByUsername(username);
+            if (extractedUserInfo == null) {
+                throw new RuntimeException("User not found: " + username);
+            }
+            return issue(extractedUserInfo);
+        });
+    }
 
-        if (extractedUserInfo == null) {
-            throw new RuntimeException("User not found: " + username);
-        }
-        refreshTokenRepository.deleteByUserInfo(extractedUserInfo);
-        refreshTokenRepository.flush();
-        String token;
-        do{
-            token=UUID.randomUUID().toString();
-        }while (refreshTokenRepository.findByToken(token).isPresent());
+    // Issues a token for a principal that was just authenticated or saved, without reading the user again
+    @Transactional
+    public RefreshToken createRefreshToken(CustomUserDetails user) {
+        UserInfo owner = UserInfo.builder()
+                .userId(user.getUserId())
+                .username(user.getUsername())
+                .build();
+        return authMetrics.record(AuthMetrics.Stage.REFRESH_TOKEN_ISSUE, () -> issue(owner));
+    }
 
+    private RefreshToken issue(UserInfo extractedUserInfo) {
+        // A random UUID carries 122 bits of entropy and tokens are unique in the table, so no probe loop is needed
         RefreshToken refreshToken = RefreshToken.builder()
                 .userInfo(extractedUserInfo)
-                .token(token)
+                .token(UUID.randomUUID().toString())
                 .expiry_date(Instant.now().plusMillis(REFRESH_TOKEN_EXPIRATION_MS))
                 .build();
 
-        return refreshTokenRepository.save(refreshToken);
+        // Replaces any previous token of the user atomically; concurrent logins serialize on the user
+        refreshTokenStore.save(refreshToken);
+        return refreshToken;
     }
     public RefreshToken verifyExpiration(RefreshToken token){
         if(token.getExpiry_date().compareTo(Instant.now())<0){
-            refreshTokenRepository.delete(token);
+            authMetrics.record(AuthMetrics.Stage.REFRESH_TOKEN_EXPIRE, () -> refreshTokenStore.delete(token));
             throw new RuntimeException(token.getToken()+" Refresh token is expired ,Please make a new login: ");
         }
         return token;
     }
+    public void delete(RefreshToken token){
+        refreshTokenStore.delete(token);
+    }
+    public void deleteForUser(String userId){
+        refreshTokenStore.deleteForUser(userId);
+    }
     public Optional<RefreshToken> findByToken (String token){
-        return refreshTokenRepository.findByToken(token);
+        return authMetrics.record(AuthMetrics.Stage.REFRESH_TOKEN_LOOKUP, () -> refreshTokenStore.findByToken(token));
     }
 
 
@@ -0,0 +1,69 @@
+package com.authservice.services;
+
+import com.authservice.repository.RefreshTokenStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background job deleting expired refresh tokens, which are otherwise only removed when presented to /refreshToken.
+ * With the JPA store each batch is a separate short transaction, so MySQL never holds row locks for a whole pass.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "auth.refresh-token.sweep.enabled", havingValue = "true", matchIfMissing = true)
+public class RefreshTokenSweeper {
+
+    private final RefreshTokenStore refreshTokenStore;
+    private final int batchSize;
+    private final int maxBatchesPerPass;
+    private final Counter removed;
+    private final Timer passDuration;
+
+    public RefreshTokenSweeper(RefreshTokenStore refreshTokenStore,
+                               @Value("${auth.refresh-token.sweep.batch-size:1000}") int batchSize,
+                               @Value("${auth.refresh-token.sweep.max-batches-per-pass:100}") int maxBatchesPerPass,
+                               MeterRegistry meterRegistry) {
+        this.refreshTokenStore = refreshTokenStore;
+        this.batchSize = batchSize;
+        this.maxBatchesPerPass = maxBatchesPerPass;
+        this.removed = Counter.builder("auth.refresh_token.sweep.removed")
+                .description("Expired refresh tokens deleted by the sweeper")
+                .register(meterRegistry);
+        this.passDuration = Timer.builder("auth.refresh_token.sweep.duration")
+                .description("Duration of one sweeper pass")
+                .register(meterRegistry);
+    }
+
+    // Returns the number of tokens removed in this pass
+    @Scheduled(fixedDelayString = "${auth.refresh-token.sweep.interval-ms:60000}",
+            initialDelayString = "${auth.refresh-token.sweep.interval-ms:60000}")
+    public int sweep() {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        int total = 0;
+        int batches = 0;
+        int deleted;
+        do {
+            deleted = refreshTokenStore.deleteExpired(now, batchSize);
+            total += deleted;
+            batches++;
+        } while (deleted == batchSize && batches < maxBatchesPerPass);
+
+        long elapsed = System.nanoTime() - start;
+        passDuration.record(elapsed, TimeUnit.NANOSECONDS);
+        removed.increment(total);
+        if (total > 0) {
+            log.info("Removed {} expired refresh tokens in {} batches ({} ms)", total, batches, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+        return total;
+    }
+}
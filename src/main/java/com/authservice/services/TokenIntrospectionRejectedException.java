@@ -0,0 +1,10 @@
+package com.authservice.services;
+
+/**
+ * Thrown when the introspection queue is full and a batch cannot be admitted.
+ */
+public class TokenIntrospectionRejectedException extends RuntimeException {
+    public TokenIntrospectionRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
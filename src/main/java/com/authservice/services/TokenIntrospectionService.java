@@ -0,0 +1,107 @@
+package com.authservice.services;
+
+import com.authservice.model.TokenIntrospection;
+import com.authservice.model.VerifiedClaims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies batches of access tokens for gateways with the same checks as JwtAuthFilter:
+ * signature and expiry, then the revocation list. Tokens already in VerifiedTokenCache are reused,
+ * but introspected tokens are never added to it, so bulk checks do not evict the request path's entries.
+ * A batch is split into chunks verified in parallel on a pool sized to the cores, since verification
+ * is pure CPU work; results come back per chunk, in request order, so they can be streamed as they finish.
+ * The pool has a bounded queue of chunks; a batch that does not fit fails with TokenIntrospectionRejectedException.
+ */
+@Service
+public class TokenIntrospectionService implements DisposableBean {
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationList tokenRevocationList;
+    private final int chunkSize;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public TokenIntrospectionService(VerifiedTokenCache verifiedTokenCache,
+                                     TokenRevocationList tokenRevocationList,
+                                     @Value("${auth.introspect.chunk-size:256}") int chunkSize,
+                                     @Value("${auth.introspect.queue-capacity:64}") int queueCapacity,
+                                     MeterRegistry meterRegistry) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationList = tokenRevocationList;
+        this.chunkSize = chunkSize;
+        int poolSize = Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("token-introspection-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.rejected = Counter.builder("auth.introspect.rejected")
+                .description("Introspection batches rejected because the verification queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.introspect.queue.depth", executor, e -> e.getQueue().size())
+                .description("Introspection chunks waiting for a verification thread")
+                .register(meterRegistry);
+    }
+
+    // One future per chunk of at most chunkSize tokens, in the order of the input
+    public List<CompletableFuture<List<TokenIntrospection>>> introspectAll(List<String> tokens) {
+        List<CompletableFuture<List<TokenIntrospection>>> chunks = new ArrayList<>((tokens.size() + chunkSize - 1) / chunkSize);
+        try {
+            for (int from = 0; from < tokens.size(); from += chunkSize) {
+                List<String> chunk = tokens.subList(from, Math.min(from + chunkSize, tokens.size()));
+                chunks.add(CompletableFuture.supplyAsync(() -> introspectChunk(chunk), executor));
+            }
+        } catch (RejectedExecutionException e) {
+            // A cancelled future skips its chunk when a thread picks it up, so the queued part of the batch costs nothing
+            chunks.forEach(chunk -> chunk.cancel(false));
+            rejected.increment();
+            throw new TokenIntrospectionRejectedException("Token introspection capacity exhausted", e);
+        }
+        return chunks;
+    }
+
+    public TokenIntrospection introspect(String token) {
+        if (token == null || token.isEmpty()) {
+            return TokenIntrospection.inactive();
+        }
+        VerifiedClaims claims;
+        try {
+            claims = verifiedTokenCache.verifyWithoutCaching(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return TokenIntrospection.inactive();
+        }
+        if (claims.getSubject() == null || claims.isExpired(Instant.now()) || tokenRevocationList.isRevoked(claims)) {
+            return TokenIntrospection.inactive();
+        }
+        return new TokenIntrospection(true, claims.getSubject(), claims.getUserId(), claims.getRoles(),
+                claims.getExpiresAt() == null ? null : claims.getExpiresAt().getEpochSecond());
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private List<TokenIntrospection> introspectChunk(List<String> chunk) {
+        List<TokenIntrospection> results = new ArrayList<>(chunk.size());
+        for (String token : chunk) {
+            results.add(introspect(token));
+        }
+        return results;
+    }
+}
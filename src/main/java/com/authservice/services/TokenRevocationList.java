@@ -0,0 +1,88 @@
+package com.authservice.services;
+
+import com.authservice.entities.RevokedToken;
+import com.authservice.model.VerifiedClaims;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This node's in-memory copy of the revoked_tokens table, consulted by JwtAuthFilter on every request.
+ * A check is one hash lookup by jti plus one by subject (skipped while no subject is revoked), with no I/O.
+ * Each entry expires when the last token it covers would have expired anyway, so the set only holds
+ * revocations that can still matter. Entries are never evicted for size: forgetting one would un-revoke a token.
+ */
+@Component
+public class TokenRevocationList {
+
+    private record Revocation(Instant revokedAt, Instant expiresAt) {
+    }
+
+    private final Cache<String, Revocation> revokedTokenIds;
+    private final Cache<String, Revocation> revokedSubjects;
+
+    public TokenRevocationList(MeterRegistry meterRegistry) {
+        this.revokedTokenIds = Caffeine.newBuilder()
+                .expireAfter(new UntilRevocationExpiry())
+                .recordStats()
+                .build();
+        this.revokedSubjects = Caffeine.newBuilder()
+                .expireAfter(new UntilRevocationExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, revokedTokenIds, "revokedTokenIds");
+        CaffeineCacheMetrics.monitor(meterRegistry, revokedSubjects, "revokedSubjects");
+    }
+
+    public boolean isRevoked(VerifiedClaims claims) {
+        if (claims.getTokenId() != null && revokedTokenIds.getIfPresent(claims.getTokenId()) != null) {
+            return true;
+        }
+        if (revokedSubjects.estimatedSize() == 0) {
+            return false;
+        }
+        Revocation revocation = revokedSubjects.getIfPresent(claims.getSubject());
+        // iat has second precision, so a token issued in the same second as the revocation is revoked too
+        return revocation != null
+                && (claims.getIssuedAt() == null || !claims.getIssuedAt().isAfter(revocation.revokedAt()));
+    }
+
+    // Idempotent, so polls may overlap and read the same rows again
+    public void add(RevokedToken row) {
+        Revocation revocation = new Revocation(row.getRevokedAt(), row.getExpiresAt());
+        if (!revocation.expiresAt().isAfter(Instant.now())) {
+            return;
+        }
+        if (row.getTokenId() != null) {
+            revokedTokenIds.put(row.getTokenId(), revocation);
+        } else {
+            // Keep the latest cut-off when a subject is revoked more than once
+            revokedSubjects.asMap().merge(row.getSubject(), revocation,
+                    (current, added) -> added.revokedAt().isAfter(current.revokedAt()) ? added : current);
+        }
+    }
+
+    private static final class UntilRevocationExpiry implements Expiry<String, Revocation> {
+        @Override
+        public long expireAfterCreate(String key, Revocation revocation, long currentTime) {
+            long remainingMs = revocation.expiresAt().toEpochMilli() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Revocation revocation, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, revocation, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Revocation revocation, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
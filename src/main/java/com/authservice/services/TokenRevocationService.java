@@ -0,0 +1,93 @@
+package com.authservice.services;
+
+import com.authservice.entities.RevokedToken;
+import com.authservice.model.VerifiedClaims;
+import com.authservice.repository.RevokedTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Revokes access tokens before their exp: one token (logout) or every token of a user issued so far.
+ * Revocations are written to revoked_tokens and applied to this node's TokenRevocationList at once;
+ * other nodes pick them up by polling the table for rows newer than the last ones they saw.
+ * The poll re-reads a short overlap, so a row whose transaction committed late is still seen.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenRevocationList tokenRevocationList;
+    private final JwtService jwtService;
+    private final Duration pollOverlap;
+    // Only the scheduler thread moves it; starts at the epoch so the first poll loads every live revocation
+    private volatile Instant watermark = Instant.EPOCH;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  TokenRevocationList tokenRevocationList,
+                                  JwtService jwtService,
+                                  @Value("${auth.revocation.poll-overlap-ms:10000}") long pollOverlapMs) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.tokenRevocationList = tokenRevocationList;
+        this.jwtService = jwtService;
+        this.pollOverlap = Duration.ofMillis(pollOverlapMs);
+    }
+
+    // Revokes the presented token only; tokens without a jti can only be revoked together with the user's others
+    public void revoke(VerifiedClaims claims) {
+        if (claims.getTokenId() == null) {
+            revokeAllForUser(claims.getSubject());
+            return;
+        }
+        save(RevokedToken.builder()
+                .tokenId(claims.getTokenId())
+                .subject(claims.getSubject())
+                .revokedAt(Instant.now())
+                .expiresAt(claims.getExpiresAt())
+                .build());
+    }
+
+    // For account disable or password change: every access token of the user issued until now stops working
+    public void revokeAllForUser(String username) {
+        Instant now = Instant.now();
+        save(RevokedToken.builder()
+                .subject(username)
+                .revokedAt(now)
+                .expiresAt(now.plus(jwtService.getAccessTokenLifetime()))
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.poll-interval-ms:2000}")
+    public int poll() {
+        Instant now = Instant.now();
+        List<RevokedToken> rows = revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(watermark.minus(pollOverlap), now);
+        Instant newest = watermark;
+        for (RevokedToken row : rows) {
+            tokenRevocationList.add(row);
+            if (row.getRevokedAt().isAfter(newest)) {
+                newest = row.getRevokedAt();
+            }
+        }
+        watermark = newest;
+        return rows.size();
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        int removed = revokedTokenRepository.deleteExpired(Instant.now());
+        if (removed > 0) {
+            log.debug("Purged {} expired revocations", removed);
+        }
+    }
+
+    private void save(RevokedToken row) {
+        revokedTokenRepository.save(row);
+        tokenRevocationList.add(row);
+    }
+}
@@ -0,0 +1,100 @@
+package com.authservice.services;
+
+import com.authservice.entities.UserChange;
+import com.authservice.repository.UserChangeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the user caches of every node in step through the user_change_log table, with no broker beyond MySQL.
+ * A node that changes a user's password or roles writes one row after the change commits; every node
+ * polls the table for rows newer than the last ones it saw and evicts those usernames from its UserDetailsCache.
+ * Like the revocation poll, each poll re-reads a short overlap so a row whose transaction committed late is
+ * still seen; rows already applied are remembered for that window and not evicted twice.
+ * Propagation lag (row written to eviction on this node) is published as auth.user_change.propagation_lag;
+ * it is measured across clocks, so it includes any skew between the nodes.
+ */
+@Slf4j
+@Service
+public class UserChangeLog {
+
+    private final UserChangeRepository userChangeRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final Duration pollOverlap;
+    private final Duration retention;
+    private final Timer propagationLag;
+    // Starts now: the cache is empty at startup, so older changes have nothing to evict
+    private Instant watermark = Instant.now();
+    // Ids applied within the overlap window, with their changed_at for pruning
+    private final Map<Long, Instant> applied = new HashMap<>();
+
+    public UserChangeLog(UserChangeRepository userChangeRepository,
+                         UserDetailsCache userDetailsCache,
+                         MeterRegistry meterRegistry,
+                         @Value("${auth.user-changes.poll-overlap-ms:10000}") long pollOverlapMs,
+                         @Value("${auth.user-changes.retention-minutes:60}") long retentionMinutes) {
+        this.userChangeRepository = userChangeRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.pollOverlap = Duration.ofMillis(pollOverlapMs);
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        this.propagationLag = Timer.builder("auth.user_change.propagation_lag")
+                .description("Time from a user change being logged to its eviction from this node's user cache")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // Call once the change has committed, so no node can reload the old row after evicting it
+    public void publish(String username) {
+        userChangeRepository.save(UserChange.builder()
+                .username(username)
+                .changedAt(Instant.now())
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${auth.user-changes.poll-interval-ms:1000}")
+    public synchronized int poll() {
+        Instant now = Instant.now();
+        Instant since = watermark.minus(pollOverlap);
+        List<UserChange> rows = userChangeRepository.findByChangedAtAfter(since);
+        int evicted = 0;
+        Instant newest = watermark;
+        for (UserChange row : rows) {
+            if (applied.putIfAbsent(row.getId(), row.getChangedAt()) == null) {
+                userDetailsCache.invalidate(row.getUsername());
+                propagationLag.record(maxZero(Duration.between(row.getChangedAt(), now)));
+                evicted++;
+            }
+            if (row.getChangedAt().isAfter(newest)) {
+                newest = row.getChangedAt();
+            }
+        }
+        watermark = newest;
+        // Rows older than the next poll's window will not be read again
+        Instant nextSince = watermark.minus(pollOverlap);
+        applied.values().removeIf(changedAt -> !changedAt.isAfter(nextSince));
+        return evicted;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.user-changes.purge-interval-ms:600000}")
+    public void purgeOld() {
+        int removed = userChangeRepository.deleteOlderThan(Instant.now().minus(retention));
+        if (removed > 0) {
+            log.debug("Purged {} old user changes", removed);
+        }
+    }
+
+    // A node whose clock runs behind the writer's would otherwise record a negative lag
+    private static Duration maxZero(Duration lag) {
+        return lag.isNegative() ? Duration.ZERO : lag;
+    }
+}
@@ -5,40 +5,83 @@ import com.authservice.model.UserInfoDto;
 import com.authservice.repository.UserRepository;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import java.util.HashSet;
-import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 @AllArgsConstructor
 @Data
 @Component
-public class UserDetailServicesImpl implements UserDetailsService {
+public class UserDetailServicesImpl implements UserDetailsService, UserDetailsPasswordService {
     private  final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
+    private final AuthMetrics authMetrics;
+    private final UsernameFilter usernameFilter;
+    private final UserChangeLog userChangeLog;
     @Override
     public UserDetails loadUserByUsername (String byUsername) throws UsernameNotFoundException{
-        UserInfo user=userRepository.findByUsername(byUsername);
+        return userDetailsCache.get(byUsername, this::loadFromRepository);
+    }
+    private CustomUserDetails loadFromRepository(String byUsername){
+        CustomUserDetails user=authMetrics.record(AuthMetrics.Stage.USER_LOOKUP,
+                () -> CustomUserDetails.fromRows(userRepository.findCredentialsByUsername(byUsername)));
         if(user==null){
             throw new UsernameNotFoundException("user not found ...!");
         }
-        return new CustomUserDetails(user);
+        return user;
+    }
+    // Must be called whenever a user's password or roles change, after the change has committed;
+    // evicts here at once and on the other nodes at their next change-log poll
+    public void invalidateUser(String username){
+        userDetailsCache.invalidate(username);
+        userChangeLog.publish(username);
+    }
+    // A new password chosen by the user; the caller ends the user's sessions (TokenRevocationService.revokeAllForUser)
+    public void changePassword(String username, String newPassword){
+        userRepository.updatePassword(username, passwordEncoder.encode(newPassword));
+        invalidateUser(username);
+    }
+    // Called by the authentication provider after a successful login whose stored hash needs upgrading.
+    // The password itself is unchanged, so the user's sessions stay valid
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword){
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        invalidateUser(user.getUsername());
+        String userId = user instanceof CustomUserDetails details ? details.getUserId() : null;
+        return new CustomUserDetails(userId, user.getUsername(), newPassword, user.getAuthorities());
     }
     public UserInfo checkIfUserAlreadyExist(UserInfoDto userInfoDto){
         return userRepository.findByUsername(userInfoDto.getUsername());
     }
-    public  boolean signUp(UserInfoDto userInfoDto){
-        userInfoDto.setPassword(passwordEncoder.encode(userInfoDto.getPassword()));
-        if(Objects.nonNull(checkIfUserAlreadyExist(userInfoDto))){
-           return false;
+    // Returns the principal of the saved user, or empty when the username is taken
+    public Optional<CustomUserDetails> signUp(UserInfoDto userInfoDto){
+        String username = userInfoDto.getUsername();
+        // 1. Conflicts are detected before hashing; a definite filter miss skips the query as well
+        if(usernameFilter.mightContain(username) && userRepository.existsByUsername(username)){
+           return Optional.empty();
         }
+        // 2. Only a signup that can succeed pays for BCrypt
+        userInfoDto.setPassword(passwordEncoder.encode(userInfoDto.getPassword()));
         String userId = UUID.randomUUID().toString();
-        userRepository.save(new UserInfo().builder().userId(userId).username(userInfoDto.getUsername()).password(userInfoDto.getPassword()).roles(new HashSet<>()).build());
-        return true;
+        UserInfo saved;
+        try {
+            saved = userRepository.save(new UserInfo().builder().userId(userId).username(username).password(userInfoDto.getPassword()).roles(new HashSet<>()).build());
+        } catch (DataIntegrityViolationException e) {
+            // 3. The unique index still decides: a concurrent signup or another node took the name first
+            usernameFilter.put(username);
+            return Optional.empty();
+        }
+        // 4. No invalidation or change-log row: failed lookups are not cached, so no node holds an entry for a new name
+        usernameFilter.put(username);
+        return Optional.of(new CustomUserDetails(saved));
     }
 }
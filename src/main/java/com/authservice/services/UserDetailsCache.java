@@ -0,0 +1,73 @@
+package com.authservice.services;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-based cache of loaded users keyed by username.
+ * Shared by every UserDetailServicesImpl instance so invalidation is seen by login and the JWT filter alike.
+ * Hit/miss/eviction counts are published as the "userDetails" cache metrics on the actuator.
+ */
+@Component
+public class UserDetailsCache implements DisposableBean {
+
+    private final AsyncCache<String, CustomUserDetails> cache;
+    // With virtual threads, loads run on a fresh one outside the cache's bin lock, so a database query never
+    // pins a request's carrier. Platform threads load on the caller, as a synchronous cache would: no hop.
+    private final ExecutorService loader;
+
+    public UserDetailsCache(@Value("${auth.user-cache.maximum-size:10000}") long maximumSize,
+                            @Value("${auth.user-cache.ttl-seconds:300}") long ttlSeconds,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                            MeterRegistry meterRegistry) {
+        this.loader = virtualThreads ? Executors.newVirtualThreadPerTaskExecutor() : null;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .executor(virtualThreads ? loader : Runnable::run)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+    }
+
+    // Loads at most once per username at a time; loader exceptions are propagated and never cached
+    public CustomUserDetails get(String username, Function<String, CustomUserDetails> loader) {
+        CompletableFuture<CustomUserDetails> future = cache.get(username, loader);
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Also drops a load that is still in flight, so a value read before a change cannot survive it
+    public void invalidate(String username) {
+        cache.synchronous().invalidate(username);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    @Override
+    public void destroy() {
+        if (loader != null) {
+            loader.shutdown();
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.authservice.services;
+
+import com.authservice.auth.PasswordHashingRejectedException;
+import com.authservice.model.UserImportFailure;
+import com.authservice.model.UserImportReport;
+import com.authservice.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk user import from a streamed CSV of "username,password" lines (an optional header line is skipped).
+ * The file is processed in chunks: one query finds usernames that already exist, passwords are hashed
+ * in parallel, and the new users are written with one JDBC batch per chunk in their own transaction.
+ * Rows that cannot be imported are reported by line number instead of failing the whole file.
+ */
+@Slf4j
+@Service
+public class UserImportService implements DisposableBean {
+
+    private static final String INSERT_USER = "INSERT INTO users (user_id, username, password) VALUES (?, ?, ?)";
+    private static final String HEADER = "username,password";
+    private static final long REJECTED_BACKOFF_MS = 10;
+
+    private final UserRepository userRepository;
+    private final UsernameFilter usernameFilter;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService hashingExecutor;
+    private final int chunkSize;
+    private final int maxReportedFailures;
+
+    public UserImportService(UserRepository userRepository,
+                             UsernameFilter usernameFilter,
+                             PasswordEncoder passwordEncoder,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${auth.import.chunk-size:1000}") int chunkSize,
+                             @Value("${auth.import.hash-parallelism:0}") int hashParallelism,
+                             @Value("${auth.password.pool-size:0}") int passwordPoolSize,
+                             @Value("${auth.import.max-reported-failures:1000}") int maxReportedFailures) {
+        this.userRepository = userRepository;
+        this.usernameFilter = usernameFilter;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxReportedFailures = maxReportedFailures;
+        // Each import thread waits on one hash at a time, so imports never hold more than this many
+        // slots of the shared password hashing pool; the rest stay free for logins and signups
+        int pool = passwordPoolSize > 0 ? passwordPoolSize : Runtime.getRuntime().availableProcessors();
+        int threads = hashParallelism > 0 ? hashParallelism : Math.max(1, pool / 2);
+        if (pool > 1 && threads >= pool) {
+            throw new IllegalArgumentException("auth.import.hash-parallelism (" + threads
+                    + ") must be below the password hashing pool size (" + pool + ") so logins keep a slot");
+        }
+        this.hashingExecutor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("user-import-"));
+    }
+
+    private record ImportRow(long line, String username, String password) {
+    }
+
+    private record HashedRow(long line, String userId, String username, String passwordHash) {
+    }
+
+    public UserImportReport importUsers(InputStream csv) throws IOException {
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+        // Usernames of the current chunk only, so memory stays bounded however large the file is;
+        // a repeat in a later chunk is rejected by the existence check like any other taken name
+        Set<String> seen = new HashSet<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && line.trim().equalsIgnoreCase(HEADER))) {
+                    continue;
+                }
+                ImportRow row = parse(lineNumber, line, progress, seen);
+                if (row == null) {
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, progress);
+                    chunk = new ArrayList<>(chunkSize);
+                    seen.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, progress);
+            }
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Imported {} users in {} ms, {} rows failed", progress.imported, elapsedMillis, progress.failed);
+        return new UserImportReport(progress.imported, progress.failed, elapsedMillis, progress.failures);
+    }
+
+    @Override
+    public void destroy() {
+        hashingExecutor.shutdownNow();
+    }
+
+    // The username ends at the first comma; everything after it is the password, commas included
+    private static ImportRow parse(long lineNumber, String line, Progress progress, Set<String> seen) {
+        int comma = line.indexOf(',');
+        String username = comma < 0 ? line.trim() : line.substring(0, comma).trim();
+        String password = comma < 0 ? "" : line.substring(comma + 1);
+        if (username.isEmpty() || password.isEmpty()) {
+            progress.fail(lineNumber, username, "username and password are required");
+            return null;
+        }
+        if (!seen.add(username)) {
+            progress.fail(lineNumber, username, "duplicate username in file");
+            return null;
+        }
+        return new ImportRow(lineNumber, username, password);
+    }
+
+    private void importChunk(List<ImportRow> chunk, Progress progress) {
+        // 1. One query for the whole chunk instead of a findByUsername per row, and only for possible hits
+        List<ImportRow> fresh = withoutExisting(chunk, progress);
+
+        // 2. Hash in parallel; each row is hashed once even if the insert below has to be retried
+        List<HashedRow> batch = hash(fresh, progress);
+
+        // 3. Batch insert in one transaction per chunk
+        try {
+            insert(batch);
+        } catch (DuplicateKeyException e) {
+            // A username was taken by a concurrent signup or import after the check; drop those and retry once
+            List<String> names = new ArrayList<>(batch.size());
+            for (HashedRow row : batch) {
+                names.add(row.username());
+            }
+            Set<String> taken = new HashSet<>(userRepository.findExistingUsernames(names));
+            List<HashedRow> retry = new ArrayList<>(batch.size());
+            for (HashedRow row : batch) {
+                if (taken.contains(row.username())) {
+                    usernameFilter.put(row.username());
+                    progress.fail(row.line(), row.username(), "username already exists");
+                } else {
+                    retry.add(row);
+                }
+            }
+            batch = retry;
+            try {
+                insert(batch);
+            } catch (DuplicateKeyException again) {
+                // Lost another race in between; settle the remaining rows one by one
+                batch = insertEach(batch, progress);
+            }
+        }
+        progress.imported += batch.size();
+    }
+
+    // Returns the rows that were inserted; a row whose username is taken by now is reported instead
+    private List<HashedRow> insertEach(List<HashedRow> rows, Progress progress) {
+        List<HashedRow> inserted = new ArrayList<>(rows.size());
+        for (HashedRow row : rows) {
+            try {
+                insert(List.of(row));
+                inserted.add(row);
+            } catch (DuplicateKeyException e) {
+                usernameFilter.put(row.username());
+                progress.fail(row.line(), row.username(), "username already exists");
+            }
+        }
+        return inserted;
+    }
+
+    private List<ImportRow> withoutExisting(List<ImportRow> chunk, Progress progress) {
+        List<String> names = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (usernameFilter.mightContain(row.username())) {
+                names.add(row.username());
+            }
+        }
+        Set<String> existing = names.isEmpty() ? Set.of() : new HashSet<>(userRepository.findExistingUsernames(names));
+        List<ImportRow> fresh = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (existing.contains(row.username())) {
+                progress.fail(row.line(), row.username(), "username already exists");
+            } else {
+                fresh.add(row);
+            }
+        }
+        return fresh;
+    }
+
+    private List<HashedRow> hash(List<ImportRow> rows, Progress progress) {
+        List<Future<String>> hashes = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            hashes.add(hashingExecutor.submit(() -> encode(row.password())));
+        }
+        List<HashedRow> batch = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            ImportRow row = rows.get(i);
+            try {
+                batch.add(new HashedRow(row.line(), UUID.randomUUID().toString(), row.username(), hashes.get(i).get()));
+            } catch (InterruptedException e) {
+                hashes.forEach(hash -> hash.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while hashing imported passwords", e);
+            } catch (ExecutionException e) {
+                progress.fail(row.line(), row.username(), "password could not be hashed");
+            }
+        }
+        return batch;
+    }
+
+    // Imports are batch work: when logins have filled the hashing pool, wait for room rather than drop the row
+    private String encode(String rawPassword) throws InterruptedException {
+        while (true) {
+            try {
+                return passwordEncoder.encode(rawPassword);
+            } catch (PasswordHashingRejectedException e) {
+                Thread.sleep(REJECTED_BACKOFF_MS);
+            }
+        }
+    }
+
+    // The users table has a String key, so Hibernate cannot batch these inserts; plain JDBC batching can
+    private void insert(List<HashedRow> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (HashedRow row : batch) {
+            args.add(new Object[]{row.userId(), row.username(), row.passwordHash()});
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_USER, args));
+        for (HashedRow row : batch) {
+            usernameFilter.put(row.username());
+        }
+    }
+
+    // Accumulates the outcome of one import; only touched by the importing thread
+    private final class Progress {
+        private long imported;
+        private long failed;
+        private final List<UserImportFailure> failures = new ArrayList<>();
+
+        private void fail(long line, String username, String reason) {
+            failed++;
+            if (failures.size() < maxReportedFailures) {
+                failures.add(new UserImportFailure(line, username, reason));
+            }
+        }
+    }
+}
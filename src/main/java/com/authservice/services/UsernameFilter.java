@@ -0,0 +1,121 @@
+package com.authservice.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over every username in the users table, used by signup and bulk import to skip the
+ * existence query for names that certainly do not exist yet. A hit only means "maybe", so callers still
+ * query; the unique index on users.username remains the authority (other nodes, races, deleted users).
+ * Memory is fixed at construction: about 1.2 MB per million expected users at a 1% false-positive rate.
+ * Never consulted on login, where a fast path for unknown names would leak which usernames exist.
+ */
+@Slf4j
+@Component
+public class UsernameFilter {
+
+    private static final String PAGE_QUERY = "SELECT username FROM users WHERE username > ? ORDER BY username LIMIT ?";
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    // Until the table has been read every name is a possible hit, so callers keep querying
+    private volatile boolean loaded;
+
+    public UsernameFilter(JdbcTemplate jdbcTemplate,
+                          @Value("${auth.username-filter.expected-users:10000000}") long expectedUsers,
+                          @Value("${auth.username-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedUsers * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int words = (int) Math.max(1, (bits + 63) / 64);
+        this.words = new AtomicLongArray(words);
+        this.bitCount = words * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedUsers * ln2));
+    }
+
+    // Reads the usernames page by page along the unique index, after startup so it never delays readiness
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        long count = 0;
+        String after = "";
+        List<String> page;
+        do {
+            page = jdbcTemplate.queryForList(PAGE_QUERY, String.class, after, LOAD_PAGE_SIZE);
+            for (String username : page) {
+                put(username);
+            }
+            count += page.size();
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1);
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+        loaded = true;
+        log.info("Username filter loaded {} users in {} ms ({} bits, {} hashes)",
+                count, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), bitCount, hashCount);
+    }
+
+    // Must be called after every user insert so the filter never reports a false miss
+    public void put(String username) {
+        long hash = hash(username);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    // false: the username is certainly not taken; true: it may be, check the database
+    public boolean mightContain(String username) {
+        if (!loaded) {
+            return true;
+        }
+        long hash = hash(username);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 64-bit FNV-1a over the UTF-16 code units; String.hashCode has too few bits for tens of millions of names
+    private static long hash(String username) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < username.length(); i++) {
+            hash ^= username.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // MurmurHash3 finalizer, spreads FNV's weak low bits over the whole word
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
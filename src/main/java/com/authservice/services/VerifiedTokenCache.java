@@ -0,0 +1,119 @@
+package com.authservice.services;
+
+import com.authservice.model.VerifiedClaims;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of already verified access tokens, so a bearer token reused across requests is only
+ * HMAC-verified the first time it is seen.
+ * Entries are keyed by the SHA-256 digest of the raw token (the token itself is never stored)
+ * and expire no later than the token's own exp claim. Lookups are lock-free reads.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtService jwtService;
+    private final boolean enabled;
+    private final Cache<TokenDigest, VerifiedClaims> cache;
+    private final MessageDigest sha256;
+
+    public VerifiedTokenCache(JwtService jwtService,
+                              @Value("${jwt.verified-cache.enabled:true}") boolean enabled,
+                              @Value("${jwt.verified-cache.maximum-size:100000}") long maximumSize,
+                              MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        this.sha256 = newSha256();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "verifiedTokens");
+    }
+
+    // Same contract as JwtService.verifyToken: throws for tokens that are malformed, forged or expired
+    public VerifiedClaims verify(String token) {
+        if (!enabled) {
+            return jwtService.verifyToken(token);
+        }
+        TokenDigest key = digest(token);
+        VerifiedClaims claims = cache.getIfPresent(key);
+        if (claims == null) {
+            claims = jwtService.verifyToken(token);
+            if (claims.getExpiresAt() != null) {
+                cache.put(key, claims);
+            }
+        }
+        return claims;
+    }
+
+    // Uses an entry the request path already cached but never adds one, so bulk callers cannot evict the hot set;
+    // the quiet read also leaves hit rates and eviction order as the request path made them
+    public VerifiedClaims verifyWithoutCaching(String token) {
+        if (!enabled) {
+            return jwtService.verifyToken(token);
+        }
+        VerifiedClaims claims = cache.policy().getIfPresentQuietly(digest(token));
+        return claims != null ? claims : jwtService.verifyToken(token);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private TokenDigest digest(String token) {
+        ByteBuffer hash = ByteBuffer.wrap(cloneSha256().digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new TokenDigest(hash.getLong(0), hash.getLong(8), hash.getLong(16), hash.getLong(24));
+    }
+
+    // Cloning a prepared digest is cheaper than a provider lookup and, unlike a ThreadLocal, stays cheap on virtual threads
+    private MessageDigest cloneSha256() {
+        try {
+            return (MessageDigest) sha256.clone();
+        } catch (CloneNotSupportedException e) {
+            return newSha256();
+        }
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record TokenDigest(long h0, long h1, long h2, long h3) {
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<TokenDigest, VerifiedClaims> {
+        @Override
+        public long expireAfterCreate(TokenDigest key, VerifiedClaims claims, long currentTime) {
+            long remainingMs = claims.getExpiresAt().toEpochMilli() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, VerifiedClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, VerifiedClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+-- Schema as Hibernate created it with ddl-auto=update before any of the later migrations; existing databases
+-- are baselined at this version, so this file must never gain anything they do not already have.
+-- Keep to SQL that MySQL and H2 in MySQL mode both accept, so the startup test can run it.
+
+CREATE TABLE users (
+    user_id VARCHAR(255) NOT NULL,
+    username VARCHAR(255),
+    password VARCHAR(255),
+    PRIMARY KEY (user_id)
+);
+
+CREATE TABLE roles (
+    role_id BIGINT NOT NULL,
+    name VARCHAR(255),
+    PRIMARY KEY (role_id)
+);
+
+-- GenerationType.AUTO on MySQL: Hibernate's table-backed sequence for roles.role_id
+CREATE TABLE roles_seq (
+    next_val BIGINT
+);
+INSERT INTO roles_seq VALUES (1);
+
+CREATE TABLE user_role_join (
+    user_id VARCHAR(255) NOT NULL,
+    role_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, role_id),
+    CONSTRAINT fk_user_role_join_role FOREIGN KEY (role_id) REFERENCES roles (role_id),
+    CONSTRAINT fk_user_role_join_user FOREIGN KEY (user_id) REFERENCES users (user_id)
+);
+
+CREATE TABLE tokens (
+    id INTEGER NOT NULL AUTO_INCREMENT,
+    token VARCHAR(255),
+    expiry_date DATETIME(6),
+    user_id VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_tokens_user FOREIGN KEY (user_id) REFERENCES users (user_id)
+);
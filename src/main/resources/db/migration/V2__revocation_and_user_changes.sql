@@ -0,0 +1,32 @@
+-- Indexes, constraints and tables added on top of the baseline schema
+
+-- Signup and import conflict checks look users up by name; the unique index also settles concurrent signups.
+-- Fails on a database that already holds duplicate usernames, which have to be resolved by hand first.
+CREATE UNIQUE INDEX idx_users_username ON users (username);
+
+-- One refresh token per user: the upsert relies on this key. Keep the newest row where older code left several.
+DELETE FROM tokens WHERE id NOT IN (SELECT keep_id FROM (SELECT MAX(id) AS keep_id FROM tokens GROUP BY user_id) latest);
+ALTER TABLE tokens ADD CONSTRAINT uk_tokens_user_id UNIQUE (user_id);
+ALTER TABLE tokens ADD CONSTRAINT uk_tokens_token UNIQUE (token);
+-- The expired-token sweeper deletes in expiry order
+CREATE INDEX idx_tokens_expiry_date ON tokens (expiry_date);
+
+CREATE TABLE revoked_tokens (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    token_id VARCHAR(255),
+    subject VARCHAR(255),
+    revoked_at DATETIME(6) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_revoked_tokens_token_id UNIQUE (token_id)
+);
+CREATE INDEX idx_revoked_tokens_revoked_at ON revoked_tokens (revoked_at);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
+
+CREATE TABLE user_change_log (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(255) NOT NULL,
+    changed_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_user_change_log_changed_at ON user_change_log (changed_at);
@@ -0,0 +1,12 @@
+-- Authentication audit trail written by JdbcAuditSink (auth.audit.sink=jdbc)
+
+CREATE TABLE auth_audit_log (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    occurred_at DATETIME(6) NOT NULL,
+    type VARCHAR(32) NOT NULL,
+    username VARCHAR(255),
+    client_ip VARCHAR(45),
+    detail VARCHAR(255),
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_auth_audit_log_occurred_at ON auth_audit_log (occurred_at);
@@ -0,0 +1,50 @@
+package com.authservice;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// An existing production database has the baseline schema but no Flyway history; the prod profile
+// baselines it at V1, and every later migration must still run on it
+class FlywayMigrationTests {
+
+    @Test
+    void databaseCreatedBeforeFlywayIsBaselinedAndMigrated() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:legacy_db;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline.sql")).execute(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Timestamp expiry = Timestamp.from(Instant.now());
+        jdbcTemplate.update("INSERT INTO users (user_id, username, password) VALUES ('u-1', 'alice', 'hash')");
+        // Written before the one-token-per-user key existed
+        jdbcTemplate.update("INSERT INTO tokens (token, expiry_date, user_id) VALUES ('old', ?, 'u-1')", expiry);
+        jdbcTemplate.update("INSERT INTO tokens (token, expiry_date, user_id) VALUES ('new', ?, 'u-1')", expiry);
+
+        MigrateResult result = Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        assertThat(result.migrationsExecuted).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForList("SELECT token FROM tokens", String.class)).containsExactly("new");
+        assertThatThrownBy(() -> jdbcTemplate.update(
+                "INSERT INTO tokens (token, expiry_date, user_id) VALUES ('another', ?, 'u-1')", expiry))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM revoked_tokens", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_change_log", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM auth_audit_log", Integer.class)).isZero();
+    }
+}
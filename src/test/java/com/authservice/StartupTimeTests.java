@@ -0,0 +1,60 @@
+package com.authservice;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Boots the prod profile (Flyway schema, lazy beans) on its own embedded database and reports
+// how long a fresh instance takes to serve its first successful login
+class StartupTimeTests {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeTests.class);
+
+    @Test
+    void prodProfileServesALoginRightAfterStartup() throws Exception {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AuthserviceApplication.class)
+                .run("--spring.profiles.active=test,prod",
+                        "--spring.datasource.url=jdbc:h2:mem:startup_db;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--server.port=0")) {
+            long ready = System.nanoTime();
+
+            context.getBean(JdbcTemplate.class).update("INSERT INTO users (user_id, username, password) VALUES (?, ?, ?)",
+                    "u-1", "alice", context.getBean(PasswordEncoder.class).encode("secret"));
+            HttpRequest login = HttpRequest.newBuilder(URI.create(
+                            "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/auth/v1/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"alice\",\"password\":\"secret\"}"))
+                    .build();
+            HttpResponse<String> response = HttpClient.newHttpClient().send(login, HttpResponse.BodyHandlers.ofString());
+            long firstLogin = System.nanoTime();
+
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.body()).contains("accessToken");
+            // prod calibrates the cost on this host instead of the pinned default
+            assertThat(context.getEnvironment().getProperty("auth.password.bcrypt-cost")).isEqualTo("0");
+            assertThat(context.getBean(MeterRegistry.class).get("auth.password.bcrypt.cost").gauge().value())
+                    .isGreaterThanOrEqualTo(10);
+            // The auth filters run inside the security chain only, not a second time as plain servlet filters
+            assertThat(((ServletWebServerApplicationContext) context).getServletContext().getFilterRegistrations())
+                    .containsKey("springSecurityFilterChain")
+                    .doesNotContainKeys("jwtAuthFilter", "loginRateLimitFilter");
+            log.info("Startup: context ready in {} ms, first successful login after {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(ready - start), TimeUnit.NANOSECONDS.toMillis(firstLogin - start));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.authservice.auth;
+
+import com.authservice.entities.RevokedToken;
+import com.authservice.model.AuthAuditEvent;
+import com.authservice.model.VerifiedClaims;
+import com.authservice.services.AuditLog;
+import com.authservice.services.AuthMetrics;
+import com.authservice.services.CustomUserDetails;
+import com.authservice.services.JwtService;
+import com.authservice.services.JwtSigningKeys;
+import com.authservice.services.TokenRevocationList;
+import com.authservice.services.VerifiedTokenCache;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthFilterTests {
+
+    private static final String SECRET = "Y2hhbmdlLW1lLWxvY2FsLWRldi1zZWNyZXQtYXQtbGVhc3QtMzItYnl0ZXMh";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtSigningKeys signingKeys = JwtSigningKeys.hmac(SECRET);
+    private final AuthMetrics authMetrics = new AuthMetrics(meterRegistry);
+    private final JwtService jwtService = new JwtService(signingKeys, authMetrics);
+    private final TokenRevocationList tokenRevocationList = new TokenRevocationList(new SimpleMeterRegistry());
+    private final List<AuthAuditEvent> audited = new ArrayList<>();
+    private final AuditLog auditLog = new AuditLog(audited::addAll, new SimpleMeterRegistry(), 16, 16, 3_600_000);
+    private final JwtAuthFilter filter = new JwtAuthFilter();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(filter, "verifiedTokenCache",
+                new VerifiedTokenCache(jwtService, false, 100, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(filter, "authMetrics", authMetrics);
+        ReflectionTestUtils.setField(filter, "tokenRevocationList", tokenRevocationList);
+        ReflectionTestUtils.setField(filter, "authenticationMode", AuthenticationMode.STATELESS);
+        ReflectionTestUtils.setField(filter, "auditLog", auditLog);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validTokenIsCountedAsOkAndTimed() throws Exception {
+        String token = jwtService.generateToken(new CustomUserDetails("id-1", "alice", null,
+                List.of(new SimpleGrantedAuthority("USER"))));
+
+        filter.doFilter(request("Bearer " + token), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        assertThat(outcome("ok")).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.stage.duration").tag("stage", "jwt_verify").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.stage.duration").tag("stage", "jwt_sign").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void missingHeaderIsCountedAsMissing() throws Exception {
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(outcome("missing")).isEqualTo(1);
+    }
+
+    @Test
+    void forgedTokenIsCountedAsInvalid() throws Exception {
+        String token = jwtService.generateToken(new CustomUserDetails("id-1", "alice", null, List.of()));
+        String forged = token.substring(0, token.lastIndexOf('.') + 1) + "invalid-signature";
+
+        filter.doFilter(request("Bearer " + forged), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(outcome("invalid")).isEqualTo(1);
+    }
+
+    @Test
+    void expiredTokenIsCountedAsExpired() throws Exception {
+        String expired = Jwts.builder()
+                .setSubject("alice")
+                .setIssuedAt(new Date(System.currentTimeMillis() - 120_000))
+                .setExpiration(new Date(System.currentTimeMillis() - 60_000))
+                .signWith(signingKeys.getSigningKey(), signingKeys.getAlgorithm())
+                .compact();
+
+        filter.doFilter(request("Bearer " + expired), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(outcome("expired")).isEqualTo(1);
+        assertThat(outcome("invalid")).isZero();
+    }
+
+    @Test
+    void revokedTokenIsNotAuthenticated() throws Exception {
+        String token = jwtService.generateToken(new CustomUserDetails("id-1", "alice", null, List.of()));
+        VerifiedClaims claims = jwtService.verifyToken(token);
+        tokenRevocationList.add(RevokedToken.builder()
+                .tokenId(claims.getTokenId())
+                .subject("alice")
+                .revokedAt(Instant.now())
+                .expiresAt(claims.getExpiresAt())
+                .build());
+
+        filter.doFilter(request("Bearer " + token), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(outcome("revoked")).isEqualTo(1);
+        auditLog.flush();
+        assertThat(audited).singleElement().satisfies(event -> {
+            assertThat(event.getType()).isEqualTo(AuthAuditEvent.Type.TOKEN_REJECTED);
+            assertThat(event.getUsername()).isEqualTo("alice");
+            assertThat(event.getDetail()).isEqualTo("revoked");
+        });
+    }
+
+    private static MockHttpServletRequest request(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", authorization);
+        return request;
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("auth.filter.requests").tag("outcome", outcome).counter().count();
+    }
+}
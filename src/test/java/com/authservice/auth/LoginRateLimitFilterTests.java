@@ -0,0 +1,101 @@
+package com.authservice.auth;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginRateLimitFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // 2 attempts per username and 100 per IP before throttling
+    private final LoginRateLimitFilter filter = new LoginRateLimitFilter(true, 60, 100, 1, 2, 1000, meterRegistry);
+
+    @Test
+    void usernameIsThrottledAcrossCaseAndTheBodyReachesTheController() throws Exception {
+        MockFilterChain first = new MockFilterChain();
+        filter.doFilter(login("10.0.0.1", "alice"), new MockHttpServletResponse(), first);
+        filter.doFilter(login("10.0.0.2", "Alice"), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockFilterChain third = new MockFilterChain();
+        filter.doFilter(login("10.0.0.3", "ALICE"), rejected, third);
+
+        assertThat(first.getRequest().getInputStream().readAllBytes())
+                .asString(StandardCharsets.UTF_8).contains("\"alice\"");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isNotNull();
+        assertThat(third.getRequest()).isNull();
+        assertThat(meterRegistry.get("auth.login.rate_limited").tag("key", "username").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void otherEndpointsAreNotThrottled() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = login("10.0.0.1", "alice");
+            request.setRequestURI("/auth/v1/signup");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void oversizedBodyIsRefused() throws Exception {
+        MockHttpServletRequest request = login("10.0.0.1", "x".repeat(5000));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(413);
+    }
+
+    @Test
+    void cachedBodyCanBeReadAsynchronously() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(login("10.0.0.1", "alice"), new MockHttpServletResponse(), chain);
+        ServletInputStream in = chain.getRequest().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                while (in.isReady() && !in.isFinished()) {
+                    read.write(in.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allRead.set(true);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+
+        assertThat(allRead).isTrue();
+        assertThat(read.toString(StandardCharsets.UTF_8)).contains("\"alice\"");
+    }
+
+    private static MockHttpServletRequest login(String ip, String username) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/v1/login");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(("{\"username\":\"" + username + "\",\"password\":\"secret\"}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
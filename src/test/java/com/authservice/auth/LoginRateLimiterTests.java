@@ -0,0 +1,49 @@
+package com.authservice.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginRateLimiterTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    // 60 per minute = one token per second, up to 3 at once
+    private final LoginRateLimiter limiter = new LoginRateLimiter(60, 3, 1000);
+
+    @Test
+    void allowsTheBurstThenRejectsUntilATokenIsBack() {
+        long now = 0;
+        assertThat(limiter.tryAcquire("alice", now)).isZero();
+        assertThat(limiter.tryAcquire("alice", now)).isZero();
+        assertThat(limiter.tryAcquire("alice", now)).isZero();
+
+        assertThat(limiter.tryAcquire("alice", now)).isEqualTo(SECOND);
+        assertThat(limiter.tryAcquire("alice", now + SECOND)).isZero();
+        assertThat(limiter.tryAcquire("alice", now + SECOND)).isPositive();
+    }
+
+    @Test
+    void keysHaveIndependentBuckets() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("alice", 0);
+        }
+
+        assertThat(limiter.tryAcquire("alice", 0)).isPositive();
+        assertThat(limiter.tryAcquire("bob", 0)).isZero();
+    }
+
+    @Test
+    void rejectedAttemptsDoNotExtendTheWait() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("alice", 0);
+        }
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("alice", 0);
+        }
+
+        assertThat(limiter.tryAcquire("alice", SECOND)).isZero();
+    }
+}
@@ -0,0 +1,38 @@
+package com.authservice.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHashCalibratorTests {
+
+    @Test
+    void picksTheCostClosestToTheTarget() {
+        // 3 ms at cost 8 doubles to 48 ms at cost 12
+        int cost = PasswordHashCalibrator.bcryptCost(Duration.ofMillis(50), 4, cost8 -> TimeUnit.MILLISECONDS.toNanos(3));
+
+        assertThat(cost).isEqualTo(12);
+    }
+
+    @Test
+    void neverGoesBelowTheMinimumOrAboveTheMaximum() {
+        int slowHost = PasswordHashCalibrator.bcryptCost(Duration.ofMillis(50), 10, cost8 -> TimeUnit.MILLISECONDS.toNanos(40));
+        int fastHost = PasswordHashCalibrator.bcryptCost(Duration.ofMillis(50), 10, cost8 -> 1_000);
+
+        assertThat(slowHost).isEqualTo(10);
+        assertThat(fastHost).isEqualTo(PasswordHashCalibrator.MAX_BCRYPT_COST);
+    }
+
+    @Test
+    void upgradesOnlyHashesAtALowerCost() {
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+        assertThat(encoder.upgradeEncoding(new CalibratedBCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        // A node pinned higher wrote it; rehashing down would undo that on every other login
+        assertThat(encoder.upgradeEncoding(new CalibratedBCryptPasswordEncoder(6).encode("secret"))).isFalse();
+    }
+}
@@ -0,0 +1,174 @@
+package com.authservice.controller;
+
+import com.authservice.repository.RefreshTokenRepository;
+import com.authservice.repository.UserRepository;
+import com.authservice.services.AuditLog;
+import com.authservice.services.UserDetailsCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Pollers and the audit writer parked so their queries do not land in the statement counts
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "auth.user-changes.poll-interval-ms=3600000",
+        "auth.revocation.poll-interval-ms=3600000",
+        "auth.audit.sink=jdbc",
+        "auth.audit.flush-interval-ms=3600000"})
+@AutoConfigureMockMvc
+class AuthControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @AfterEach
+    void cleanUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        userDetailsCache.invalidateAll();
+        auditLog.flush();
+        jdbcTemplate.update("DELETE FROM auth_audit_log");
+    }
+
+    @Test
+    void loginReadsTheUserOnceAndWritesTheRefreshTokenOnce() throws Exception {
+        jdbcTemplate.update("INSERT INTO users (user_id, username, password) VALUES (?, ?, ?)",
+                "u-1", "alice", passwordEncoder.encode("secret"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(post("/auth/v1/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"alice\",\"password\":\"secret\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").isNotEmpty())
+                .andExpect(jsonPath("$.token").isNotEmpty());
+
+        // One credential projection for the password check, one upsert for the refresh token
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void loginRehashesALegacyHashToTheCurrentEncoding() throws Exception {
+        // Stored before hashes were prefixed
+        jdbcTemplate.update("INSERT INTO users (user_id, username, password) VALUES (?, ?, ?)",
+                "u-2", "carol", new BCryptPasswordEncoder(4).encode("secret"));
+
+        mockMvc.perform(post("/auth/v1/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"carol\",\"password\":\"secret\"}"))
+                .andExpect(status().isOk());
+
+        String rehashed = userRepository.findByUsername("carol").getPassword();
+        assertThat(rehashed).startsWith("{bcrypt}$2a$04$");
+        assertThat(passwordEncoder.matches("secret", rehashed)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(rehashed)).isFalse();
+    }
+
+    @Test
+    void signupIssuesTokensForTheSavedUser() throws Exception {
+        mockMvc.perform(post("/auth/v1/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"bob\",\"password\":\"secret\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").isNotEmpty())
+                .andExpect(jsonPath("$.token").isNotEmpty());
+
+        assertThat(refreshTokenRepository.findAll())
+                .singleElement()
+                .satisfies(token -> assertThat(token.getUserInfo().getUsername()).isEqualTo("bob"));
+    }
+
+    @Test
+    void expiredRefreshTokenIsAuditedWithoutTheToken() throws Exception {
+        jdbcTemplate.update("INSERT INTO users (user_id, username, password) VALUES (?, ?, ?)",
+                "u-3", "dave", passwordEncoder.encode("secret"));
+        jdbcTemplate.update("INSERT INTO tokens (user_id, token, expiry_date) VALUES (?, ?, ?)",
+                "u-3", "expired-refresh-token", Timestamp.from(Instant.now().minusSeconds(60)));
+
+        mockMvc.perform(post("/auth/v1/refreshToken")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"token\":\"expired-refresh-token\"}"))
+                .andExpect(status().isForbidden());
+        auditLog.flush();
+
+        assertThat(jdbcTemplate.queryForList("SELECT detail FROM auth_audit_log WHERE type = 'REFRESH_FAILED'", String.class))
+                .containsExactly("expired");
+    }
+
+    @Test
+    void changingThePasswordEndsEverySession() throws Exception {
+        jdbcTemplate.update("INSERT INTO users (user_id, username, password) VALUES (?, ?, ?)",
+                "u-4", "erin", passwordEncoder.encode("secret"));
+        JsonNode tokens = objectMapper.readTree(mockMvc.perform(post("/auth/v1/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"erin\",\"password\":\"secret\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        String bearer = "Bearer " + tokens.get("accessToken").asText();
+
+        mockMvc.perform(post("/auth/v1/changePassword")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"password\":\"wrong\",\"newPassword\":\"better-secret\"}"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/auth/v1/changePassword")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"password\":\"secret\",\"newPassword\":\"better-secret\"}"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/auth/v1/me").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().is4xxClientError());
+        mockMvc.perform(post("/auth/v1/refreshToken")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"token\":\"" + tokens.get("token").asText() + "\"}"))
+                .andExpect(status().isForbidden());
+        assertThat(passwordEncoder.matches("better-secret", userRepository.findByUsername("erin").getPassword())).isTrue();
+    }
+}
@@ -0,0 +1,100 @@
+package com.authservice.controller;
+
+import com.authservice.model.VerifiedClaims;
+import com.authservice.services.JwtService;
+import com.authservice.services.TokenRevocationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"auth.introspect.chunk-size=4", "auth.introspect.max-tokens=50"})
+@AutoConfigureMockMvc
+class IntrospectionControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @WithMockUser(authorities = "INTROSPECT")
+    void batchKeepsRequestOrderAcrossChunks() throws Exception {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tokens.add(token("user-" + i));
+        }
+        tokens.set(3, "not-a-jwt");
+        String revoked = token("revoked-user");
+        VerifiedClaims revokedClaims = jwtService.verifyToken(revoked);
+        tokenRevocationService.revoke(revokedClaims);
+        tokens.set(7, revoked);
+
+        MvcResult started = mockMvc.perform(post("/auth/v1/introspect")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(tokens)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(10))
+                .andExpect(jsonPath("$[0].active").value(true))
+                .andExpect(jsonPath("$[0].sub").value("user-0"))
+                .andExpect(jsonPath("$[0].roles[0]").value("USER"))
+                .andExpect(jsonPath("$[0].exp").isNumber())
+                .andExpect(jsonPath("$[3].active").value(false))
+                .andExpect(jsonPath("$[3].sub").doesNotExist())
+                .andExpect(jsonPath("$[7].active").value(false))
+                .andExpect(jsonPath("$[9].sub").value("user-9"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "INTROSPECT")
+    void oversizedBatchIsRefused() throws Exception {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 51; i++) {
+            tokens.add("t" + i);
+        }
+
+        mockMvc.perform(post("/auth/v1/introspect")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(tokens)))
+                .andExpect(status().isPayloadTooLarge());
+    }
+
+    @Test
+    @WithMockUser(authorities = "USER")
+    void callersWithoutTheAuthorityAreForbidden() throws Exception {
+        mockMvc.perform(post("/auth/v1/introspect")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isForbidden());
+    }
+
+    private String token(String username) {
+        return jwtService.generateToken(User.withUsername(username).password("secret").authorities("USER").build());
+    }
+}
@@ -0,0 +1,44 @@
+package com.authservice.repository;
+
+import com.authservice.model.AuthAuditEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileAuditSinkTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendsOneJsonObjectPerLineAcrossRestarts() throws Exception {
+        Path file = directory.resolve("audit/auth-audit.log");
+        AuthAuditEvent login = new AuthAuditEvent(Instant.parse("2026-01-01T00:00:00Z"),
+                AuthAuditEvent.Type.LOGIN_FAILED, "al\"ice", "10.0.0.1", "BadCredentialsException");
+        AuthAuditEvent logout = new AuthAuditEvent(Instant.parse("2026-01-01T00:00:01Z"),
+                AuthAuditEvent.Type.LOGOUT, "alice", null, null);
+
+        FileAuditSink first = new FileAuditSink(file.toString());
+        first.write(List.of(login));
+        first.destroy();
+        FileAuditSink second = new FileAuditSink(file.toString());
+        second.write(List.of(logout));
+        second.destroy();
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(2);
+        JsonNode firstLine = new ObjectMapper().readTree(lines.get(0));
+        assertThat(firstLine.get("ts").asText()).isEqualTo("2026-01-01T00:00:00Z");
+        assertThat(firstLine.get("type").asText()).isEqualTo("LOGIN_FAILED");
+        assertThat(firstLine.get("username").asText()).isEqualTo("al\"ice");
+        assertThat(new ObjectMapper().readTree(lines.get(1)).get("ip").isNull()).isTrue();
+    }
+}
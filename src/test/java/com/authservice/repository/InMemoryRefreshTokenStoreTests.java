@@ -0,0 +1,48 @@
+package com.authservice.repository;
+
+import com.authservice.entities.RefreshToken;
+import com.authservice.entities.UserInfo;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRefreshTokenStoreTests extends RefreshTokenStoreContractTests {
+
+    private final InMemoryRefreshTokenStore store = new InMemoryRefreshTokenStore(100);
+
+    @Override
+    protected RefreshTokenStore store() {
+        return store;
+    }
+
+    @Override
+    protected UserInfo user(String username) {
+        return UserInfo.builder()
+                .userId(UUID.randomUUID().toString())
+                .username(username)
+                .password("hash")
+                .roles(new HashSet<>())
+                .build();
+    }
+
+    @Test
+    void evictsTokensClosestToExpiryOnceTheCapIsReached() {
+        InMemoryRefreshTokenStore capped = new InMemoryRefreshTokenStore(2);
+        RefreshToken soonest = token(user("a"), Duration.ofMinutes(1));
+        RefreshToken later = token(user("b"), Duration.ofMinutes(5));
+        RefreshToken latest = token(user("c"), Duration.ofMinutes(10));
+
+        capped.save(soonest);
+        capped.save(later);
+        capped.save(latest);
+
+        assertThat(capped.size()).isEqualTo(2);
+        assertThat(capped.findByToken(soonest.getToken())).isEmpty();
+        assertThat(capped.findByToken(later.getToken())).isPresent();
+        assertThat(capped.findByToken(latest.getToken())).isPresent();
+    }
+}
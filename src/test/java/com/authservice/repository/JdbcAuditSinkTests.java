@@ -0,0 +1,38 @@
+package com.authservice.repository;
+
+import com.authservice.model.AuthAuditEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcAuditSinkTests {
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+            "jdbc:h2:mem:audit_sink_db;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+
+    @Test
+    void oversizedClientSuppliedValuesAreCutToTheColumnWidths() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V3__auth_audit_log.sql"))
+                .execute(jdbcTemplate.getDataSource());
+        String username = "u".repeat(1024);
+        AuthAuditEvent attack = new AuthAuditEvent(Instant.now(), AuthAuditEvent.Type.LOGIN_FAILED,
+                username, "f".repeat(64), "BadCredentialsException");
+        AuthAuditEvent other = new AuthAuditEvent(Instant.now(), AuthAuditEvent.Type.LOGIN_SUCCEEDED, "alice", "10.0.0.1", null);
+
+        new JdbcAuditSink(jdbcTemplate).write(List.of(attack, other));
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT username, client_ip FROM auth_audit_log ORDER BY id");
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).get("username")).isEqualTo(username.substring(0, 255));
+        assertThat((String) rows.get(0).get("client_ip")).hasSize(45);
+        assertThat(rows.get(1).get("username")).isEqualTo("alice");
+    }
+}
@@ -0,0 +1,40 @@
+package com.authservice.repository;
+
+import com.authservice.entities.UserInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashSet;
+import java.util.UUID;
+
+@SpringBootTest
+class JpaRefreshTokenStoreTests extends RefreshTokenStoreContractTests {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void cleanUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Override
+    protected RefreshTokenStore store() {
+        return new JpaRefreshTokenStore(refreshTokenRepository);
+    }
+
+    @Override
+    protected UserInfo user(String username) {
+        return userRepository.save(UserInfo.builder()
+                .userId(UUID.randomUUID().toString())
+                .username(username)
+                .password("hash")
+                .roles(new HashSet<>())
+                .build());
+    }
+}
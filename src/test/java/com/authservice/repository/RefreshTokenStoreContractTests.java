@@ -0,0 +1,95 @@
+package com.authservice.repository;
+
+import com.authservice.entities.RefreshToken;
+import com.authservice.entities.UserInfo;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Behaviour every RefreshTokenStore must share; each implementation runs it through a subclass.
+ */
+abstract class RefreshTokenStoreContractTests {
+
+    protected abstract RefreshTokenStore store();
+
+    // Returns a user the store can reference (persisted when the store needs it)
+    protected abstract UserInfo user(String username);
+
+    @Test
+    void savedTokenCanBeFound() {
+        RefreshToken token = token(user("alice"), Duration.ofMinutes(10));
+
+        store().save(token);
+
+        assertThat(store().findByToken(token.getToken()))
+                .hasValueSatisfying(found -> assertThat(found.getUserInfo().getUsername()).isEqualTo("alice"));
+    }
+
+    @Test
+    void unknownTokenIsNotFound() {
+        assertThat(store().findByToken("missing")).isEmpty();
+    }
+
+    @Test
+    void newTokenReplacesThePreviousTokenOfTheSameUser() {
+        UserInfo bob = user("bob");
+        RefreshToken first = token(bob, Duration.ofMinutes(10));
+        RefreshToken second = token(bob, Duration.ofMinutes(10));
+
+        store().save(first);
+        store().save(second);
+
+        assertThat(store().findByToken(first.getToken())).isEmpty();
+        assertThat(store().findByToken(second.getToken())).isPresent();
+    }
+
+    @Test
+    void deletedTokenIsGone() {
+        RefreshToken token = token(user("carol"), Duration.ofMinutes(10));
+        store().save(token);
+
+        store().delete(store().findByToken(token.getToken()).orElseThrow());
+
+        assertThat(store().findByToken(token.getToken())).isEmpty();
+    }
+
+    @Test
+    void deleteForUserRemovesOnlyThatUsersToken() {
+        RefreshToken dave = token(user("dave"), Duration.ofMinutes(10));
+        RefreshToken erin = token(user("erin"), Duration.ofMinutes(10));
+        store().save(dave);
+        store().save(erin);
+
+        store().deleteForUser(dave.getUserInfo().getUserId());
+
+        assertThat(store().findByToken(dave.getToken())).isEmpty();
+        assertThat(store().findByToken(erin.getToken())).isPresent();
+    }
+
+    @Test
+    void deleteExpiredRemovesOnlyExpiredTokensInBatches() {
+        RefreshToken live = token(user("live"), Duration.ofMinutes(10));
+        store().save(live);
+        for (int i = 0; i < 5; i++) {
+            store().save(token(user("expired-" + i), Duration.ofMinutes(-10 - i)));
+        }
+
+        assertThat(store().deleteExpired(Instant.now(), 3)).isEqualTo(3);
+        assertThat(store().deleteExpired(Instant.now(), 3)).isEqualTo(2);
+        assertThat(store().deleteExpired(Instant.now(), 3)).isZero();
+        assertThat(store().findByToken(live.getToken())).isPresent();
+    }
+
+    protected static RefreshToken token(UserInfo user, Duration validFor) {
+        return RefreshToken.builder()
+                .userInfo(user)
+                .token(UUID.randomUUID().toString())
+                .expiry_date(Instant.now().plus(validFor))
+                .build();
+    }
+}
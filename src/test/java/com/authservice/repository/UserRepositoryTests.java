@@ -0,0 +1,84 @@
+package com.authservice.repository;
+
+import com.authservice.model.UserCredentialRow;
+import com.authservice.services.CustomUserDetails;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserRepositoryTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO users (user_id, username, password) VALUES ('u-1', 'alice', 'hash')");
+        jdbcTemplate.update("INSERT INTO users (user_id, username, password) VALUES ('u-2', 'bob', 'hash')");
+        jdbcTemplate.update("INSERT INTO roles (role_id, name) VALUES (1, 'user'), (2, 'admin')");
+        jdbcTemplate.update("INSERT INTO user_role_join (user_id, role_id) VALUES ('u-1', 1), ('u-1', 2)");
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM user_role_join");
+        jdbcTemplate.update("DELETE FROM roles");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void credentialsAreReadInOneStatementWithoutLoadingEntities() {
+        List<UserCredentialRow> rows = userRepository.findCredentialsByUsername("alice");
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+
+        CustomUserDetails principal = CustomUserDetails.fromRows(rows);
+        assertThat(principal.getUserId()).isEqualTo("u-1");
+        assertThat(principal.getPassword()).isEqualTo("hash");
+        assertThat(principal.getAuthorities()).extracting("authority").containsExactlyInAnyOrder("USER", "ADMIN");
+    }
+
+    @Test
+    void userWithoutRolesStillYieldsAPrincipal() {
+        CustomUserDetails principal = CustomUserDetails.fromRows(userRepository.findCredentialsByUsername("bob"));
+
+        assertThat(principal.getUsername()).isEqualTo("bob");
+        assertThat(principal.getAuthorities()).isEmpty();
+    }
+
+    @Test
+    void unknownUserYieldsNoRows() {
+        assertThat(userRepository.findCredentialsByUsername("ghost")).isEmpty();
+        assertThat(CustomUserDetails.fromRows(List.of())).isNull();
+    }
+
+    @Test
+    void entityLookupLoadsManagedEntities() {
+        userRepository.findByUsername("alice");
+
+        assertThat(statistics.getEntityLoadCount()).isPositive();
+    }
+}
@@ -0,0 +1,89 @@
+package com.authservice.services;
+
+import com.authservice.model.AuthAuditEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class AuditLogTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void flushWritesEventsInBatchesInOrder() {
+        List<List<AuthAuditEvent>> batches = new CopyOnWriteArrayList<>();
+        AuditLog auditLog = new AuditLog(events -> batches.add(List.copyOf(events)), meterRegistry, 16, 2, 3_600_000);
+
+        auditLog.record(AuthAuditEvent.Type.LOGIN_SUCCEEDED, "alice", "10.0.0.1", null);
+        auditLog.record(AuthAuditEvent.Type.LOGIN_FAILED, "bob", "10.0.0.2", "BadCredentialsException");
+        auditLog.record(AuthAuditEvent.Type.LOGOUT, "alice", "10.0.0.1", null);
+
+        assertThat(auditLog.flush()).isEqualTo(3);
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(0)).extracting(AuthAuditEvent::getUsername).containsExactly("alice", "bob");
+        assertThat(batches.get(1)).extracting(AuthAuditEvent::getType).containsExactly(AuthAuditEvent.Type.LOGOUT);
+        assertThat(events("written")).isEqualTo(3);
+    }
+
+    @Test
+    void slowSinkNeverBlocksProducersAndOverflowIsCounted() throws Exception {
+        CountDownLatch sinkReleased = new CountDownLatch(1);
+        AuditLog auditLog = new AuditLog(events -> sinkReleased.await(), meterRegistry, 4, 4, 10);
+        auditLog.record(AuthAuditEvent.Type.LOGIN_SUCCEEDED, "alice", null, null);
+        // The writer has taken the first event and is now stuck in the sink
+        await().atMost(Duration.ofSeconds(5)).until(() -> meterRegistry.get("auth.audit.buffer.size").gauge().value() == 0);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 1_000; i++) {
+            auditLog.record(AuthAuditEvent.Type.TOKEN_REJECTED, "user-" + i, null, "invalid");
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertThat(Duration.ofNanos(elapsed)).isLessThan(Duration.ofSeconds(1));
+        assertThat(events("dropped")).isEqualTo(1_000 - 4);
+        sinkReleased.countDown();
+        auditLog.destroy();
+        assertThat(events("written")).isEqualTo(5);
+    }
+
+    @Test
+    void failingSinkCountsTheLostBatch() {
+        AuditLog auditLog = new AuditLog(events -> {
+            throw new IllegalStateException("disk full");
+        }, meterRegistry, 16, 16, 3_600_000);
+        auditLog.record(AuthAuditEvent.Type.SIGNUP_SUCCEEDED, "carol", null, null);
+
+        assertThat(auditLog.flush()).isEqualTo(1);
+        assertThat(events("failed")).isEqualTo(1);
+    }
+
+    @Test
+    void aRejectedEventOnlyCostsItself() {
+        List<AuthAuditEvent> stored = new CopyOnWriteArrayList<>();
+        AuditLog auditLog = new AuditLog(events -> {
+            if (events.stream().anyMatch(event -> event.getUsername().length() > 255)) {
+                throw new IllegalArgumentException("value too long for username");
+            }
+            stored.addAll(events);
+        }, meterRegistry, 16, 16, 3_600_000);
+        auditLog.record(AuthAuditEvent.Type.LOGIN_SUCCEEDED, "alice", null, null);
+        auditLog.record(AuthAuditEvent.Type.LOGIN_FAILED, "x".repeat(1024), null, "BadCredentialsException");
+        auditLog.record(AuthAuditEvent.Type.LOGOUT, "bob", null, null);
+
+        assertThat(auditLog.flush()).isEqualTo(3);
+        assertThat(stored).extracting(AuthAuditEvent::getUsername).containsExactly("alice", "bob");
+        assertThat(events("written")).isEqualTo(2);
+        assertThat(events("failed")).isEqualTo(1);
+    }
+
+    private double events(String result) {
+        return meterRegistry.get("auth.audit.events").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,104 @@
+package com.authservice.services;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Hs256TokenEncoderTests {
+
+    private static final String SECRET = "Y2hhbmdlLW1lLWxvY2FsLWRldi1zZWNyZXQtYXQtbGVhc3QtMzItYnl0ZXMh";
+    private static final long LIFETIME_MS = 1000 * 60 * 60 * 10;
+
+    private final Key key = JwtSigningKeys.hmac(SECRET).getSigningKey();
+
+    private final Hs256TokenEncoder encoder = new Hs256TokenEncoder(key.getEncoded());
+
+    @Test
+    void tokenIsByteForByteWhatJjwtBuilds() {
+        List<GrantedAuthority> roles = List.of(new SimpleGrantedAuthority("user"), new SimpleGrantedAuthority("admin"));
+
+        // Not on a whole second, so iat and exp must be truncated the way jjwt does
+        long issuedAt = System.currentTimeMillis() / 1000 * 1000 + 123;
+
+        String token = encoder.encode("0b9c3f55-2d1e-4e8f-9a57-6a3f5b1c2d3e", roles, "alice", issuedAt, LIFETIME_MS);
+
+        assertThat(token).isEqualTo(rebuildWithJjwt(token));
+        assertThat(token).startsWith("eyJhbGciOiJIUzI1NiJ9.");
+    }
+
+    @Test
+    void stringsAreEscapedAndEncodedLikeJackson() {
+        List<GrantedAuthority> roles = List.of(new SimpleGrantedAuthority("rôle \"x\""), new SimpleGrantedAuthority("\u0001\u001f"));
+
+        String token = encoder.encode("id\\with\tcontrol\r\n\b\f", roles, "ünïcöde € /", System.currentTimeMillis(), LIFETIME_MS);
+
+        assertThat(token).isEqualTo(rebuildWithJjwt(token));
+    }
+
+    @Test
+    void charactersOutsideTheBasicPlaneAreEscapedAsSurrogatePairs() {
+        String token = encoder.encode("u-1", List.of(new SimpleGrantedAuthority("\uD83D")), "dave😀", System.currentTimeMillis(), LIFETIME_MS);
+
+        assertThat(token).isEqualTo(rebuildWithJjwt(token));
+        assertThat(payloadJson(token)).contains("\"sub\":\"dave\\uD83D\\uDE00\"", "\"roles\":[\"\\uD83D\"]");
+        assertThat(parse(token).getSubject()).isEqualTo("dave😀");
+    }
+
+    @Test
+    void userIdAndRolesMayBeAbsent() {
+        String token = encoder.encode(null, List.of(), "bob", System.currentTimeMillis(), LIFETIME_MS);
+
+        assertThat(token).isEqualTo(rebuildWithJjwt(token));
+        assertThat(parse(token).containsKey("uid")).isFalse();
+    }
+
+    @Test
+    void virtualThreadsGetValidTokensFromThePool() throws Exception {
+        AtomicReference<String> token = new AtomicReference<>();
+
+        Thread.ofVirtual().start(() -> token.set(encoder.encode("u-1", List.of(), "carol", System.currentTimeMillis(), LIFETIME_MS))).join();
+
+        assertThat(parse(token.get()).getSubject()).isEqualTo("carol");
+        assertThat(token.get()).isEqualTo(rebuildWithJjwt(token.get()));
+    }
+
+    // Builds the same claims the way JwtService's jjwt path does, jti and timestamps taken from the token
+    private String rebuildWithJjwt(String token) {
+        Claims parsed = parse(token);
+        Map<String, Object> claims = new LinkedHashMap<>();
+        if (parsed.containsKey("uid")) {
+            claims.put("uid", parsed.get("uid"));
+        }
+        claims.put("roles", parsed.get("roles"));
+        return Jwts.builder()
+                .setClaims(claims)
+                .setId(parsed.getId())
+                .setSubject(parsed.getSubject())
+                .setIssuedAt(new Date(parsed.getIssuedAt().getTime()))
+                .setExpiration(new Date(parsed.getExpiration().getTime()))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static String payloadJson(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.split("\\.")[1]), StandardCharsets.UTF_8);
+    }
+
+    private Claims parse(String token) {
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+}
@@ -0,0 +1,108 @@
+package com.authservice.services;
+
+import com.authservice.entities.UserInfo;
+import com.authservice.entities.UserRole;
+import com.authservice.model.VerifiedClaims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MissingClaimException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTests {
+
+    private static final String SECRET = "Y2hhbmdlLW1lLWxvY2FsLWRldi1zZWNyZXQtYXQtbGVhc3QtMzItYnl0ZXMh";
+
+    private final JwtService jwtService = new JwtService(JwtSigningKeys.hmac(SECRET), new AuthMetrics(new SimpleMeterRegistry()));
+
+    private final UserDetails alice = User.withUsername("alice").password("secret").authorities("USER").build();
+
+    @Test
+    void verifyTokenReturnsSubjectAndTimestamps() {
+        String token = jwtService.generateToken(alice);
+
+        VerifiedClaims claims = jwtService.verifyToken(token);
+
+        assertThat(claims.getSubject()).isEqualTo("alice");
+        assertThat(claims.getIssuedAt()).isBeforeOrEqualTo(Instant.now());
+        assertThat(Duration.between(claims.getIssuedAt(), claims.getExpiresAt())).isEqualTo(Duration.ofHours(10));
+        assertThat(claims.isExpired(Instant.now())).isFalse();
+        assertThat(jwtService.isTokenValid(claims, alice)).isTrue();
+    }
+
+    @Test
+    void verifiedClaimsMatchLegacyExtractors() {
+        String token = jwtService.generateToken(alice);
+
+        VerifiedClaims claims = jwtService.verifyToken(token);
+
+        assertThat(claims.getSubject()).isEqualTo(jwtService.extractUsername(token));
+        assertThat(claims.getExpiresAt()).isEqualTo(jwtService.extractExpiration(token).toInstant());
+        assertThat(jwtService.isTokenValid(token, alice)).isTrue();
+    }
+
+    @Test
+    void tokenCarriesUserIdAndRolesForStatelessMode() {
+        UserInfo userInfo = UserInfo.builder()
+                .userId("user-1")
+                .username("carol")
+                .password("hash")
+                .roles(Set.of(new UserRole(1L, "admin")))
+                .build();
+
+        VerifiedClaims claims = jwtService.verifyToken(jwtService.generateToken(new CustomUserDetails(userInfo)));
+
+        assertThat(claims.getSubject()).isEqualTo("carol");
+        assertThat(claims.getUserId()).isEqualTo("user-1");
+        assertThat(claims.getRoles()).containsExactly("ADMIN");
+    }
+
+    @Test
+    void everyTokenGetsItsOwnId() {
+        VerifiedClaims first = jwtService.verifyToken(jwtService.generateToken(alice));
+        VerifiedClaims second = jwtService.verifyToken(jwtService.generateToken(alice));
+
+        assertThat(first.getTokenId()).isNotBlank();
+        assertThat(first.getTokenId()).isNotEqualTo(second.getTokenId());
+    }
+
+    @Test
+    void tokenForAnotherUserIsNotValid() {
+        UserDetails bob = User.withUsername("bob").password("secret").authorities("USER").build();
+
+        VerifiedClaims claims = jwtService.verifyToken(jwtService.generateToken(alice));
+
+        assertThat(jwtService.isTokenValid(claims, bob)).isFalse();
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        String token = jwtService.generateToken(alice);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> jwtService.verifyToken(tampered)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void signedTokenWithoutExpirationIsRejected() {
+        JwtSigningKeys keys = JwtSigningKeys.hmac(SECRET);
+        String token = Jwts.builder()
+                .setSubject("alice")
+                .setIssuedAt(new Date())
+                .signWith(keys.getSigningKey(), keys.getAlgorithm())
+                .compact();
+
+        assertThatThrownBy(() -> jwtService.verifyToken(token)).isInstanceOf(MissingClaimException.class);
+        assertThatThrownBy(() -> jwtService.extractUsername(token)).isInstanceOf(JwtException.class);
+    }
+}
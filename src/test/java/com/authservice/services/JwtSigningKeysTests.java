@@ -0,0 +1,110 @@
+package com.authservice.services;
+
+import com.authservice.model.VerifiedClaims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtSigningKeysTests {
+
+    private static final String SECRET = "Y2hhbmdlLW1lLWxvY2FsLWRldi1zZWNyZXQtYXQtbGVhc3QtMzItYnl0ZXMh";
+
+    private final AuthMetrics authMetrics = new AuthMetrics(new SimpleMeterRegistry());
+
+    private final UserDetails alice = User.withUsername("alice").password("secret").authorities("USER").build();
+
+    @TempDir
+    Path keyDir;
+
+    @Test
+    void es256TokensCarryKidAndVerifyWithThePublicKey() throws Exception {
+        writeKeyPair("2025-01");
+        JwtService jwtService = new JwtService(JwtSigningKeys.asymmetric(SignatureAlgorithm.ES256, keyDir, "2025-01", null), authMetrics);
+
+        String token = jwtService.generateToken(alice);
+
+        assertThat(header(token)).contains("\"kid\":\"2025-01\"").contains("\"alg\":\"ES256\"");
+        assertThat(jwtService.verifyToken(token).getSubject()).isEqualTo("alice");
+    }
+
+    @Test
+    void tokensSignedWithThePreviousKeyStayValidAfterRotation() throws Exception {
+        writeKeyPair("2025-01");
+        writeKeyPair("2025-02");
+        JwtService before = new JwtService(JwtSigningKeys.asymmetric(SignatureAlgorithm.ES256, keyDir, "2025-01", null), authMetrics);
+        JwtService after = new JwtService(JwtSigningKeys.asymmetric(SignatureAlgorithm.ES256, keyDir, "2025-02", null), authMetrics);
+
+        VerifiedClaims claims = after.verifyToken(before.generateToken(alice));
+
+        assertThat(claims.getSubject()).isEqualTo("alice");
+        assertThat(header(after.generateToken(alice))).contains("\"kid\":\"2025-02\"");
+    }
+
+    @Test
+    void hs256TokensAreRejectedUnlessLegacySecretIsAccepted() throws Exception {
+        writeKeyPair("2025-01");
+        String legacyToken = new JwtService(JwtSigningKeys.hmac(SECRET), authMetrics).generateToken(alice);
+
+        JwtService strict = new JwtService(JwtSigningKeys.asymmetric(SignatureAlgorithm.ES256, keyDir, "2025-01", null), authMetrics);
+        JwtService migrating = new JwtService(JwtSigningKeys.asymmetric(SignatureAlgorithm.ES256, keyDir, "2025-01", SECRET), authMetrics);
+
+        assertThatThrownBy(() -> strict.verifyToken(legacyToken)).isInstanceOf(JwtException.class);
+        assertThat(migrating.verifyToken(legacyToken).getSubject()).isEqualTo("alice");
+    }
+
+    @Test
+    void jwkSetListsEveryPublicKey() throws Exception {
+        writeKeyPair("2025-01");
+        writeKeyPair("2025-02");
+
+        Map<String, Object> jwks = JwtSigningKeys.asymmetric(SignatureAlgorithm.ES256, keyDir, "2025-02", null).toJwkSet();
+
+        List<?> keys = (List<?>) jwks.get("keys");
+        assertThat(keys).hasSize(2);
+        Map<?, ?> first = (Map<?, ?>) keys.get(0);
+        assertThat(first.get("kid")).isEqualTo("2025-01");
+        assertThat(first.get("kty")).isEqualTo("EC");
+        assertThat(first.get("crv")).isEqualTo("P-256");
+        assertThat(Base64.getUrlDecoder().decode((String) first.get("x"))).hasSize(32);
+        assertThat(Base64.getUrlDecoder().decode((String) first.get("y"))).hasSize(32);
+    }
+
+    @Test
+    void sharedSecretPublishesNoKeys() {
+        assertThat((List<?>) JwtSigningKeys.hmac(SECRET).toJwkSet().get("keys")).isEmpty();
+    }
+
+    private void writeKeyPair(String kid) throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = generator.generateKeyPair();
+        writePem(keyDir.resolve(kid + ".key.pem"), "PRIVATE KEY", keyPair.getPrivate().getEncoded());
+        writePem(keyDir.resolve(kid + ".pub.pem"), "PUBLIC KEY", keyPair.getPublic().getEncoded());
+    }
+
+    private static void writePem(Path file, String type, byte[] der) throws Exception {
+        String body = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der);
+        Files.writeString(file, "-----BEGIN " + type + "-----\n" + body + "\n-----END " + type + "-----\n");
+    }
+
+    private static String header(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,91 @@
+package com.authservice.services;
+
+import com.authservice.entities.RefreshToken;
+import com.authservice.entities.UserInfo;
+import com.authservice.repository.RefreshTokenRepository;
+import com.authservice.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class RefreshTokenServiceTests {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void cleanUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void newLoginReplacesThePreviousToken() {
+        saveUser("alice");
+
+        RefreshToken first = refreshTokenService.createRefreshToken("alice");
+        RefreshToken second = refreshTokenService.createRefreshToken("alice");
+
+        assertThat(refreshTokenService.findByToken(first.getToken())).isEmpty();
+        assertThat(refreshTokenService.findByToken(second.getToken())).isPresent();
+        assertThat(refreshTokenRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentLoginsForOneUserLeaveExactlyOneToken() throws Exception {
+        saveUser("racer");
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<RefreshToken>> logins = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            logins.add(pool.submit(() -> {
+                start.await();
+                return refreshTokenService.createRefreshToken("racer");
+            }));
+        }
+
+        start.countDown();
+        Set<String> issued = new HashSet<>();
+        for (Future<RefreshToken> login : logins) {
+            issued.add(login.get(30, TimeUnit.SECONDS).getToken());
+        }
+        pool.shutdown();
+
+        List<RefreshToken> stored = refreshTokenRepository.findAll();
+        assertThat(issued).hasSize(threads);
+        assertThat(stored).hasSize(1);
+        assertThat(issued).contains(stored.get(0).getToken());
+        assertThat(stored.get(0).getUserInfo().getUsername()).isEqualTo("racer");
+    }
+
+    private void saveUser(String username) {
+        userRepository.save(UserInfo.builder()
+                .userId(UUID.randomUUID().toString())
+                .username(username)
+                .password("hash")
+                .roles(new HashSet<>())
+                .build());
+    }
+}
@@ -0,0 +1,110 @@
+package com.authservice.services;
+
+import com.authservice.repository.RefreshTokenRepository;
+import com.authservice.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "auth.refresh-token.sweep.batch-size=500",
+        "auth.refresh-token.sweep.max-batches-per-pass=1000"
+})
+class RefreshTokenSweeperTests {
+
+    private static final int EXPIRED = 20_000;
+    private static final int LIVE = 200;
+
+    @Autowired
+    private RefreshTokenSweeper sweeper;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void removesExpiredTokensInBatchesAndKeepsLiveOnes() {
+        seed();
+
+        int removed = sweeper.sweep();
+
+        assertThat(removed).isEqualTo(EXPIRED);
+        assertThat(refreshTokenRepository.count()).isEqualTo(LIVE);
+        assertThat(refreshTokenService.findByToken("live-0")).isPresent();
+        assertThat(sweeper.sweep()).isZero();
+    }
+
+    @Test
+    void lookupsKeepAnsweringWhileASweepRuns() throws Exception {
+        seed();
+        AtomicInteger sweptTotal = new AtomicInteger(-1);
+        Thread sweeping = new Thread(() -> sweptTotal.set(sweeper.sweep()), "sweeper-under-test");
+
+        sweeping.start();
+        int lookupsDuringSweep = 0;
+        while (sweeping.isAlive()) {
+            assertThat(refreshTokenService.findByToken("live-" + lookupsDuringSweep % LIVE)).isPresent();
+            lookupsDuringSweep++;
+        }
+        sweeping.join();
+
+        // Batches commit separately, so lookups interleave with the pass instead of waiting for all of it
+        assertThat(sweptTotal.get()).isEqualTo(EXPIRED);
+        assertThat(lookupsDuringSweep).isPositive();
+    }
+
+    @Test
+    void lookupAndSweepUseIndexesNotTableScans() {
+        // A scan would make every lookup cost grow with the expired backlog and the sweep read the whole table per batch
+        String lookupPlan = jdbcTemplate.queryForObject("EXPLAIN SELECT * FROM tokens WHERE token = 'live-0'", String.class);
+        String sweepPlan = jdbcTemplate.queryForObject(
+                "EXPLAIN DELETE FROM tokens WHERE expiry_date < CURRENT_TIMESTAMP LIMIT 500", String.class);
+
+        // H2 names the index it picked in a comment ahead of the WHERE clause
+        assertThat(lookupPlan).doesNotContainIgnoringCase("tableScan").contains(": TOKEN = 'live-0' */");
+        assertThat(sweepPlan).doesNotContainIgnoringCase("tableScan").contains("IDX_TOKENS_EXPIRY_DATE: EXPIRY_DATE <");
+    }
+
+    private void seed() {
+        Instant now = Instant.now();
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> tokens = new ArrayList<>();
+        for (int i = 0; i < EXPIRED + LIVE; i++) {
+            boolean live = i < LIVE;
+            String userId = "user-" + i;
+            users.add(new Object[]{userId, "sweep-user-" + i, "hash"});
+            tokens.add(new Object[]{
+                    userId,
+                    (live ? "live-" : "expired-") + i,
+                    Timestamp.from(live ? now.plus(Duration.ofHours(1)) : now.minus(Duration.ofMinutes(i % 600 + 1)))
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (user_id, username, password) VALUES (?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO tokens (user_id, token, expiry_date) VALUES (?, ?, ?)", tokens);
+    }
+}
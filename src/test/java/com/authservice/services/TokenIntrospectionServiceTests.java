@@ -0,0 +1,52 @@
+package com.authservice.services;
+
+import com.authservice.model.TokenIntrospection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenIntrospectionServiceTests {
+
+    @Test
+    void batchBeyondTheQueueIsRejectedInsteadOfQueued() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        VerifiedTokenCache verifiedTokenCache = mock(VerifiedTokenCache.class);
+        when(verifiedTokenCache.verifyWithoutCaching(anyString())).thenAnswer(invocation -> {
+            release.await();
+            throw new IllegalArgumentException("not a token");
+        });
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TokenIntrospectionService service = new TokenIntrospectionService(
+                verifiedTokenCache, mock(TokenRevocationList.class), 1, 1, meterRegistry);
+        try {
+            // Every thread is busy with one chunk and the queue holds one more
+            List<String> fits = new ArrayList<>();
+            for (int i = 0; i <= Runtime.getRuntime().availableProcessors(); i++) {
+                fits.add("token-" + i);
+            }
+            List<CompletableFuture<List<TokenIntrospection>>> admitted = service.introspectAll(fits);
+
+            assertThatThrownBy(() -> service.introspectAll(List.of("a", "b")))
+                    .isInstanceOf(TokenIntrospectionRejectedException.class);
+            assertThat(meterRegistry.counter("auth.introspect.rejected").count()).isEqualTo(1);
+
+            release.countDown();
+            for (CompletableFuture<List<TokenIntrospection>> chunk : admitted) {
+                assertThat(chunk.get()).extracting(TokenIntrospection::isActive).containsExactly(false);
+            }
+        } finally {
+            release.countDown();
+            service.destroy();
+        }
+    }
+}
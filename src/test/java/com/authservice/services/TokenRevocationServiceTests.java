@@ -0,0 +1,97 @@
+package com.authservice.services;
+
+import com.authservice.entities.RevokedToken;
+import com.authservice.model.VerifiedClaims;
+import com.authservice.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.User;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "auth.revocation.poll-interval-ms=3600000")
+class TokenRevocationServiceTests {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @AfterEach
+    void cleanUp() {
+        revokedTokenRepository.deleteAll();
+    }
+
+    @Test
+    void revokedTokenIsRejectedAtOnceAndOtherTokensAreNot() {
+        VerifiedClaims revoked = issue("alice");
+        VerifiedClaims other = issue("alice");
+
+        tokenRevocationService.revoke(revoked);
+
+        assertThat(tokenRevocationList.isRevoked(revoked)).isTrue();
+        assertThat(tokenRevocationList.isRevoked(other)).isFalse();
+    }
+
+    @Test
+    void revocationWrittenByAnotherNodeIsPickedUpByThePoll() {
+        VerifiedClaims claims = issue("bob");
+        // Simulates another node: the row is only in the table, not in this node's list
+        revokedTokenRepository.save(RevokedToken.builder()
+                .tokenId(claims.getTokenId())
+                .subject("bob")
+                .revokedAt(Instant.now())
+                .expiresAt(claims.getExpiresAt())
+                .build());
+        assertThat(tokenRevocationList.isRevoked(claims)).isFalse();
+
+        assertThat(tokenRevocationService.poll()).isPositive();
+
+        assertThat(tokenRevocationList.isRevoked(claims)).isTrue();
+    }
+
+    @Test
+    void revokingAUserCoversEveryTokenIssuedBefore() {
+        VerifiedClaims before = issue("carol");
+
+        tokenRevocationService.revokeAllForUser("carol");
+
+        assertThat(tokenRevocationList.isRevoked(before)).isTrue();
+        assertThat(tokenRevocationList.isRevoked(issue("dave"))).isFalse();
+    }
+
+    @Test
+    void expiredRevocationsAreNeitherKeptNorLoaded() {
+        TokenRevocationList list = new TokenRevocationList(new SimpleMeterRegistry());
+        RevokedToken expired = RevokedToken.builder()
+                .tokenId("old-jti")
+                .subject("erin")
+                .revokedAt(Instant.now().minus(Duration.ofHours(11)))
+                .expiresAt(Instant.now().minus(Duration.ofHours(1)))
+                .build();
+
+        list.add(expired);
+
+        assertThat(list.isRevoked(new VerifiedClaims("erin", null, "old-jti", Instant.now(), Instant.now(), List.of())))
+                .isFalse();
+    }
+
+    private VerifiedClaims issue(String username) {
+        return jwtService.verifyToken(jwtService.generateToken(
+                User.withUsername(username).password("secret").authorities("USER").build()));
+    }
+}
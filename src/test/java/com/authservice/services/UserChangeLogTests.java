@@ -0,0 +1,75 @@
+package com.authservice.services;
+
+import com.authservice.AuthserviceApplication;
+import com.authservice.repository.UserChangeRepository;
+import com.authservice.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two application contexts on the same embedded database stand in for two replicas
+@SpringBootTest(properties = "auth.user-changes.poll-interval-ms=3600000")
+class UserChangeLogTests {
+
+    @Autowired
+    private UserDetailServicesImpl userDetailServicesImpl;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserChangeRepository userChangeRepository;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        userChangeRepository.deleteAll();
+        userRepository.deleteAll();
+        userDetailsCache.invalidateAll();
+    }
+
+    @Test
+    void changeOnOneNodeEvictsTheUserOnTheOtherAtItsNextPoll() {
+        jdbcTemplate.update("INSERT INTO users (user_id, username, password) VALUES ('u-1', 'dave', 'hash-1')");
+        try (ConfigurableApplicationContext otherNode = startOtherNode()) {
+            UserDetailsService otherUsers = otherNode.getBean("userDetailsService", UserDetailsService.class);
+            UserChangeLog otherChangeLog = otherNode.getBean(UserChangeLog.class);
+            assertThat(otherUsers.loadUserByUsername("dave").getPassword()).isEqualTo("hash-1");
+
+            userDetailServicesImpl.updatePassword(userDetailServicesImpl.loadUserByUsername("dave"), "hash-2");
+
+            // Until it polls, the other node still serves its cached copy
+            assertThat(otherUsers.loadUserByUsername("dave").getPassword()).isEqualTo("hash-1");
+            assertThat(otherChangeLog.poll()).isEqualTo(1);
+            assertThat(otherUsers.loadUserByUsername("dave").getPassword()).isEqualTo("hash-2");
+
+            // The next poll re-reads the row in its overlap window without evicting again
+            assertThat(otherChangeLog.poll()).isZero();
+            assertThat(otherNode.getBean(MeterRegistry.class).get("auth.user_change.propagation_lag").timer().count())
+                    .isEqualTo(1);
+        }
+    }
+
+    // Same database, its own caches; ddl-auto=none so it leaves the schema of this context alone
+    private static ConfigurableApplicationContext startOtherNode() {
+        return new SpringApplicationBuilder(AuthserviceApplication.class)
+                .profiles("test")
+                // command-line arguments, so they override application-test.properties
+                .run("--spring.jpa.hibernate.ddl-auto=none",
+                        "--server.port=0",
+                        "--auth.user-changes.poll-interval-ms=3600000");
+    }
+}
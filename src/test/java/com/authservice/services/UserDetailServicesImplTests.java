@@ -0,0 +1,121 @@
+package com.authservice.services;
+
+import com.authservice.model.UserCredentialRow;
+import com.authservice.model.UserInfoDto;
+import com.authservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserDetailServicesImplTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+
+    private final UsernameFilter usernameFilter = new UsernameFilter(mock(JdbcTemplate.class), 1000, 0.01);
+
+    private final UserChangeLog userChangeLog = mock(UserChangeLog.class);
+
+    private final UserDetailServicesImpl userDetailServices = new UserDetailServicesImpl(
+            userRepository,
+            passwordEncoder,
+            new UserDetailsCache(100, 300, false, new SimpleMeterRegistry()),
+            new AuthMetrics(new SimpleMeterRegistry()),
+            usernameFilter,
+            userChangeLog
+    );
+
+    @Test
+    void repeatedLoadsHitTheRepositoryOnce() {
+        when(userRepository.findCredentialsByUsername("alice")).thenReturn(user("alice", "hash-1"));
+
+        userDetailServices.loadUserByUsername("alice");
+        userDetailServices.loadUserByUsername("alice");
+
+        verify(userRepository, times(1)).findCredentialsByUsername("alice");
+    }
+
+    @Test
+    void invalidatedUserIsReloadedWithTheNewPassword() {
+        when(userRepository.findCredentialsByUsername("alice")).thenReturn(user("alice", "hash-1"));
+        userDetailServices.loadUserByUsername("alice");
+
+        when(userRepository.findCredentialsByUsername("alice")).thenReturn(user("alice", "hash-2"));
+        userDetailServices.invalidateUser("alice");
+        UserDetails reloaded = userDetailServices.loadUserByUsername("alice");
+
+        assertThat(reloaded.getPassword()).isEqualTo("hash-2");
+        verify(userChangeLog).publish("alice");
+    }
+
+    @Test
+    void missingUserIsNotCached() {
+        assertThatThrownBy(() -> userDetailServices.loadUserByUsername("ghost"))
+                .isInstanceOf(UsernameNotFoundException.class);
+
+        when(userRepository.findCredentialsByUsername("ghost")).thenReturn(user("ghost", "hash"));
+
+        assertThat(userDetailServices.loadUserByUsername("ghost").getUsername()).isEqualTo("ghost");
+    }
+
+    @Test
+    void duplicateSignupIsRejectedBeforeHashing() {
+        usernameFilter.load();
+        usernameFilter.put("alice");
+        when(userRepository.existsByUsername("alice")).thenReturn(true);
+
+        assertThat(userDetailServices.signUp(signUpRequest("alice"))).isEmpty();
+
+        verify(passwordEncoder, never()).encode(any());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void definiteFilterMissSkipsTheExistenceQuery() {
+        usernameFilter.load();
+        when(passwordEncoder.encode("secret")).thenReturn("hash");
+        when(userRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThat(userDetailServices.signUp(signUpRequest("newcomer"))).isPresent();
+
+        verify(userRepository, never()).existsByUsername(any());
+        verify(userChangeLog, never()).publish(any());
+        assertThat(usernameFilter.mightContain("newcomer")).isTrue();
+    }
+
+    @Test
+    void signupLosingTheUniqueIndexRaceIsAConflict() {
+        usernameFilter.load();
+        when(passwordEncoder.encode("secret")).thenReturn("hash");
+        when(userRepository.save(any())).thenThrow(new DataIntegrityViolationException("idx_users_username"));
+
+        assertThat(userDetailServices.signUp(signUpRequest("racer"))).isEmpty();
+    }
+
+    private static UserInfoDto signUpRequest(String username) {
+        UserInfoDto dto = new UserInfoDto();
+        dto.setUsername(username);
+        dto.setPassword("secret");
+        return dto;
+    }
+
+    private static List<UserCredentialRow> user(String username, String password) {
+        return List.of(new UserCredentialRow(username + "-id", username, password, null));
+    }
+}
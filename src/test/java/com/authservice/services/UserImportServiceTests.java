@@ -0,0 +1,88 @@
+package com.authservice.services;
+
+import com.authservice.model.UserImportFailure;
+import com.authservice.model.UserImportReport;
+import com.authservice.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+
+@SpringBootTest(properties = "auth.import.chunk-size=7")
+class UserImportServiceTests {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @MockitoSpyBean
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void importsNewUsersAcrossChunksAndReportsBadRows() throws Exception {
+        jdbcTemplate.update("INSERT INTO users (user_id, username, password) VALUES ('u-0', 'taken', 'old-hash')");
+        StringBuilder csv = new StringBuilder("username,password\n");
+        for (int i = 0; i < 20; i++) {
+            csv.append("import-").append(i).append(",pw-").append(i).append('\n');
+        }
+        csv.append("taken,new-password\n");    // line 22: exists already
+        csv.append("import-3,again\n");        // line 23: duplicate in the file
+        csv.append("no-password,\n");          // line 24: missing password
+        csv.append('\n');
+        csv.append("comma,pa,ss\n");           // line 26: the password keeps its comma
+
+        UserImportReport report = userImportService.importUsers(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(report.getImported()).isEqualTo(21);
+        assertThat(report.getFailed()).isEqualTo(3);
+        assertThat(report.getFailures())
+                .extracting(UserImportFailure::getLine, UserImportFailure::getUsername)
+                .containsExactlyInAnyOrder(
+                        tuple(22L, "taken"),
+                        tuple(23L, "import-3"),
+                        tuple(24L, "no-password"));
+        assertThat(userRepository.count()).isEqualTo(22);
+        assertThat(userRepository.findByUsername("taken").getPassword()).isEqualTo("old-hash");
+        assertThat(passwordEncoder.matches("pa,ss", userRepository.findByUsername("comma").getPassword())).isTrue();
+        assertThat(passwordEncoder.matches("pw-19", userRepository.findByUsername("import-19").getPassword())).isTrue();
+    }
+
+    @Test
+    void nameTakenAgainBeforeTheRetryIsReportedNotThrown() throws Exception {
+        jdbcTemplate.update("INSERT INTO users (user_id, username, password) VALUES ('u-0', 'taken', 'old-hash')");
+        // Every existence check misses, as when other writers keep taking names between check and insert
+        doReturn(List.of()).when(userRepository).findExistingUsernames(any());
+        String csv = "fresh-1,pw-1\ntaken,pw-2\nfresh-2,pw-3\n";
+
+        UserImportReport report = userImportService.importUsers(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getFailures())
+                .extracting(UserImportFailure::getLine, UserImportFailure::getUsername, UserImportFailure::getReason)
+                .containsExactly(tuple(2L, "taken", "username already exists"));
+        assertThat(userRepository.findByUsername("taken").getPassword()).isEqualTo("old-hash");
+    }
+}
@@ -0,0 +1,57 @@
+package com.authservice.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UsernameFilterTests {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    void everyNameIsAPossibleHitUntilLoaded() {
+        UsernameFilter filter = new UsernameFilter(jdbcTemplate, 1000, 0.01);
+
+        assertThat(filter.mightContain("anyone")).isTrue();
+    }
+
+    @Test
+    void loadedNamesAreNeverMissed() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(), any()))
+                .thenReturn(List.of("alice", "bob"));
+        UsernameFilter filter = new UsernameFilter(jdbcTemplate, 1000, 0.01);
+
+        filter.load();
+
+        assertThat(filter.mightContain("alice")).isTrue();
+        assertThat(filter.mightContain("bob")).isTrue();
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredRate() {
+        int users = 200_000;
+        UsernameFilter filter = new UsernameFilter(jdbcTemplate, users, 0.01);
+        filter.load();
+        for (int i = 0; i < users; i++) {
+            filter.put("user-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < users; i++) {
+            assertThat(filter.mightContain("user-" + i)).isTrue();
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / (double) users).isLessThan(0.015);
+    }
+}
@@ -0,0 +1,67 @@
+package com.authservice.services;
+
+import com.authservice.model.VerifiedClaims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class VerifiedTokenCacheTests {
+
+    private static final String SECRET = "Y2hhbmdlLW1lLWxvY2FsLWRldi1zZWNyZXQtYXQtbGVhc3QtMzItYnl0ZXMh";
+
+    private final JwtService jwtService = spy(new JwtService(JwtSigningKeys.hmac(SECRET), new AuthMetrics(new SimpleMeterRegistry())));
+
+    private final String token = jwtService.generateToken(
+            User.withUsername("alice").password("secret").authorities("USER").build());
+
+    @Test
+    void repeatedTokenIsVerifiedOnce() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, true, 100, new SimpleMeterRegistry());
+
+        VerifiedClaims first = cache.verify(token);
+        VerifiedClaims second = cache.verify(token);
+
+        assertThat(second).isSameAs(first);
+        verify(jwtService, times(1)).verifyToken(token);
+    }
+
+    @Test
+    void disabledCacheVerifiesEveryTime() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, false, 100, new SimpleMeterRegistry());
+
+        cache.verify(token);
+        cache.verify(token);
+
+        verify(jwtService, times(2)).verifyToken(token);
+    }
+
+    @Test
+    void invalidTokenIsNeverCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, true, 100, new SimpleMeterRegistry());
+        String forged = token.substring(0, token.lastIndexOf('.') + 1) + "invalid-signature";
+
+        assertThatThrownBy(() -> cache.verify(forged)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> cache.verify(forged)).isInstanceOf(JwtException.class);
+        verify(jwtService, times(2)).verifyToken(forged);
+    }
+
+    @Test
+    void verifyingWithoutCachingReusesButNeverAddsEntries() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, true, 100, new SimpleMeterRegistry());
+
+        cache.verifyWithoutCaching(token);
+        cache.verifyWithoutCaching(token);
+        verify(jwtService, times(2)).verifyToken(token);
+
+        VerifiedClaims cached = cache.verify(token);
+        assertThat(cache.verifyWithoutCaching(token)).isSameAs(cached);
+        verify(jwtService, times(3)).verifyToken(token);
+    }
+}